@@ -0,0 +1,135 @@
+package com.pao.benchmarks.events;
+
+import com.pao.events.ModificationDTO;
+import com.pao.events.OrderItemDTO;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.events.serialization.AvroEventDeserializer;
+import com.pao.events.serialization.AvroEventSerializer;
+import com.pao.events.serialization.FileSchemaRegistry;
+import org.apache.avro.specific.SpecificRecord;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An eight-item {@link OrderSubmittedEvent} through the Avro serializers the
+ * services use, and through Spring's JsonSerializer and JsonDeserializer on
+ * the shape of the Lombok event classes they replaced. Payload sizes are
+ * printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "order-events";
+    private static final int ITEMS = 8;
+
+    private AvroEventSerializer avroSerializer;
+    private AvroEventDeserializer avroDeserializer;
+    private JsonSerializer<OrderSubmittedJson> jsonSerializer;
+    private JsonDeserializer<OrderSubmittedJson> jsonDeserializer;
+
+    private OrderSubmittedEvent avroEvent;
+    private OrderSubmittedJson jsonEvent;
+    private byte[] avroBytes;
+    private byte[] jsonBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path registryDir = Files.createTempDirectory("event-serialization-benchmark");
+        avroSerializer = new AvroEventSerializer(new FileSchemaRegistry(registryDir));
+        avroDeserializer = new AvroEventDeserializer();
+        avroDeserializer.configure(Map.of(
+                AvroEventSerializer.REGISTRY_DIR_CONFIG, registryDir.toString(),
+                AvroEventDeserializer.KNOWN_TYPES_CONFIG, List.of(OrderSubmittedEvent.class)), false);
+        jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.setAddTypeInfo(false);
+        jsonDeserializer = new JsonDeserializer<>(OrderSubmittedJson.class, false);
+
+        LocalDateTime submitted = LocalDateTime.of(2024, 1, 1, 19, 30).truncatedTo(ChronoUnit.MILLIS);
+        List<OrderItemDTO> avroItems = new ArrayList<>();
+        List<OrderItemJson> jsonItems = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            String itemId = "0190cf6e-1c2a-7" + String.format("%03d", i) + "-8abc-4f1e2d3c4b5a";
+            BigDecimal price = new BigDecimal("18.50").add(BigDecimal.valueOf(i));
+            String course = i < 2 ? "APPETIZER" : i < 6 ? "MAIN" : "DESSERT";
+            avroItems.add(OrderItemDTO.newBuilder()
+                    .setItemId(itemId)
+                    .setMenuItemId("menu-" + i)
+                    .setName("Menu item " + i)
+                    .setQuantity(1)
+                    .setUnitPrice(price)
+                    .setCourseType(course)
+                    .setModifications(List.of(ModificationDTO.newBuilder()
+                            .setModificationId("no-onions")
+                            .setName("No onions")
+                            .setPriceAdjustment(new BigDecimal("0.00"))
+                            .build()))
+                    .build());
+            jsonItems.add(new OrderItemJson(itemId, "menu-" + i, "Menu item " + i, 1, price, course,
+                    List.of(new ModificationJson("no-onions", "No onions", new BigDecimal("0.00")))));
+        }
+        String orderId = "0190cf6e-1c2a-7000-8abc-4f1e2d3c4b5a";
+        BigDecimal total = new BigDecimal("176.00");
+        avroEvent = OrderSubmittedEvent.newBuilder()
+                .setOrderId(orderId)
+                .setTableId("TABLE-12")
+                .setTotal(total)
+                .setItems(avroItems)
+                .setTimestamp(submitted)
+                .build();
+        jsonEvent = new OrderSubmittedJson(orderId, "TABLE-12", total, jsonItems, submitted);
+
+        avroBytes = avroSerializer.serialize(TOPIC, avroEvent);
+        jsonBytes = jsonSerializer.serialize(TOPIC, jsonEvent);
+        System.out.printf("%n  OrderSubmittedEvent with %d items: Avro %d bytes, JSON %d bytes%n",
+                ITEMS, avroBytes.length, jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] avroSerialize() {
+        return avroSerializer.serialize(TOPIC, avroEvent);
+    }
+
+    @Benchmark
+    public SpecificRecord avroDeserialize() {
+        return avroDeserializer.deserialize(TOPIC, avroBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(TOPIC, jsonEvent);
+    }
+
+    @Benchmark
+    public OrderSubmittedJson jsonDeserialize() {
+        return jsonDeserializer.deserialize(TOPIC, jsonBytes);
+    }
+
+    // The shape of the JSON events before the move to Avro
+    public record OrderSubmittedJson(String orderId, String tableId, BigDecimal total,
+                                     List<OrderItemJson> items, LocalDateTime timestamp) {
+    }
+
+    public record OrderItemJson(String itemId, String menuItemId, String name, Integer quantity,
+                                BigDecimal unitPrice, String courseType, List<ModificationJson> modifications) {
+    }
+
+    public record ModificationJson(String modificationId, String name, BigDecimal priceAdjustment) {
+    }
+}
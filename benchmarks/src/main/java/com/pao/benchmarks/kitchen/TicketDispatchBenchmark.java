@@ -0,0 +1,106 @@
+package com.pao.benchmarks.kitchen;
+
+import com.pao.kitchen.board.KdsBoard;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.dispatch.QueuedTicket;
+import com.pao.kitchen.dispatch.TicketDispatcher;
+import com.pao.kitchen.domain.TicketPriority;
+import com.pao.kitchen.domain.TicketStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stations pulling tickets while new ones arrive: eight threads each queue a
+ * ticket and pull one per operation on {@link TicketDispatcher}'s skip lists,
+ * against the same workload on one lock around a priority heap per station.
+ * Arrivals and pulls balance, so the backlog, and with it the cost of every
+ * insert and poll, stays constant through the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class TicketDispatchBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 18, 0);
+    private static final int BACKLOG_PER_STATION = 1_000;
+
+    @Param({"1", "4"})
+    int stations;
+
+    private final AtomicLong ids = new AtomicLong();
+    private TicketDispatcher dispatcher;
+    private LockedDispatcher locked;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        dispatcher = new TicketDispatcher(new KdsBoard(null), 10);
+        locked = new LockedDispatcher();
+        for (int i = 0; i < stations * BACKLOG_PER_STATION; i++) {
+            TicketView ticket = nextTicket(ThreadLocalRandom.current());
+            dispatcher.onTicketChanged(ticket);
+            locked.offer(ticket);
+        }
+    }
+
+    @Benchmark
+    public Object skipList() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TicketView ticket = nextTicket(random);
+        dispatcher.onTicketChanged(ticket);
+        return dispatcher.pollNext(ticket.getStationId());
+    }
+
+    @Benchmark
+    public Object lockedHeap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TicketView ticket = nextTicket(random);
+        locked.offer(ticket);
+        return locked.poll(ticket.getStationId());
+    }
+
+    private TicketView nextTicket(ThreadLocalRandom random) {
+        long id = ids.incrementAndGet();
+        return TicketView.builder()
+                .ticketId("ticket-" + id)
+                .stationId("STATION-" + random.nextInt(stations))
+                .status(TicketStatus.NEW)
+                .priority(TicketPriority.values()[random.nextInt(TicketPriority.values().length)])
+                .receivedAt(BASE.plusNanos(id * 1_000L))
+                .build();
+    }
+
+    /** The single-lock alternative, ordered exactly as the dispatcher orders its queues. */
+    static final class LockedDispatcher {
+
+        private final Map<String, PriorityQueue<QueuedTicket>> stations = new HashMap<>();
+        private final Map<String, QueuedTicket> queued = new HashMap<>();
+
+        synchronized void offer(TicketView ticket) {
+            long steps = ticket.getPriority().ordinal() - TicketPriority.NORMAL.ordinal();
+            QueuedTicket entry = new QueuedTicket(ticket.getTicketId(), ticket.getStationId(),
+                    ticket.getPriority() == TicketPriority.RUSH, ticket.getReceivedAt().minusMinutes(10 * steps));
+            stations.computeIfAbsent(entry.stationId(), id -> new PriorityQueue<>()).add(entry);
+            queued.put(entry.ticketId(), entry);
+        }
+
+        synchronized QueuedTicket poll(String stationId) {
+            PriorityQueue<QueuedTicket> station = stations.get(stationId);
+            QueuedTicket next = station != null ? station.poll() : null;
+            if (next != null) {
+                queued.remove(next.ticketId());
+            }
+            return next;
+        }
+    }
+}
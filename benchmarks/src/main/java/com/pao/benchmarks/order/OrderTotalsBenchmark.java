@@ -0,0 +1,95 @@
+package com.pao.benchmarks.order;
+
+import com.pao.order.domain.ItemModification;
+import com.pao.order.domain.Order;
+import com.pao.order.domain.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building an order line by line: the running long-cents total kept by
+ * {@link Order#addItem} against re-reducing every line in BigDecimal after
+ * each addition, as the aggregate did before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalsBenchmark {
+
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.08");
+
+    @Param({"10", "50", "200"})
+    int lines;
+
+    private List<OrderItem> items;
+    private Order built;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            List<ItemModification> modifications = new ArrayList<>();
+            if (i % 3 == 0) {
+                modifications.add(ItemModification.builder()
+                        .name("Extra cheese")
+                        .priceAdjustment(new BigDecimal("1.50"))
+                        .build());
+            }
+            items.add(OrderItem.builder()
+                    .menuItemId("menu-" + i)
+                    .name("Item " + i)
+                    .quantity(1 + i % 4)
+                    .unitPrice(new BigDecimal("12.95"))
+                    .modifications(modifications)
+                    .build());
+        }
+        built = newOrder();
+        built.addItems(items);
+    }
+
+    @Benchmark
+    public BigDecimal runningTotal() {
+        Order order = newOrder();
+        for (OrderItem item : items) {
+            order.addItem(item);
+        }
+        return order.getTotal();
+    }
+
+    @Benchmark
+    public BigDecimal reduceAfterEveryLine() {
+        Order order = newOrder();
+        for (OrderItem item : items) {
+            item.calculateTotal();
+            order.getItems().add(item);
+            item.setOrder(order);
+            BigDecimal subtotal = order.getItems().stream()
+                    .map(OrderItem::getTotalPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal tax = subtotal.multiply(TAX_RATE);
+            order.setSubtotal(subtotal);
+            order.setTax(tax);
+            order.setTotal(subtotal.add(tax));
+        }
+        return order.getTotal();
+    }
+
+    @Benchmark
+    public BigDecimal recalculateTotal() {
+        built.recalculateTotal();
+        return built.getTotal();
+    }
+
+    private static Order newOrder() {
+        Order order = new Order();
+        order.setItems(new ArrayList<>(64));
+        return order;
+    }
+}
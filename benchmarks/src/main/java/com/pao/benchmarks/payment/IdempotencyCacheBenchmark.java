@@ -0,0 +1,59 @@
+package com.pao.benchmarks.payment;
+
+import com.pao.payment.idempotency.IdempotencyCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry storms from flaky terminals: eight threads repeating requests over a
+ * small or large set of idempotency keys, through {@link IdempotencyCache}
+ * and straight to the lookup it stands in front of. {@code keys = 1} is every
+ * terminal retrying the same payment; 100000 is mostly first attempts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class IdempotencyCacheBenchmark {
+
+    // Roughly the CPU cost of an indexed lookup's round trip on the request thread
+    private static final long LOOKUP_TOKENS = 2_000;
+
+    @Param({"1", "64", "100000"})
+    int keys;
+
+    private IdempotencyCache<String> cache;
+    private String[] keyNames;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cache = new IdempotencyCache<>(10_000, Duration.ofMinutes(10), v -> true);
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "terminal-key-" + i;
+        }
+    }
+
+    @Benchmark
+    public String cached() {
+        String key = keyNames[ThreadLocalRandom.current().nextInt(keys)];
+        return cache.getOrCompute(key, () -> lookup(key));
+    }
+
+    @Benchmark
+    public String uncached() {
+        return lookup(keyNames[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    private static String lookup(String key) {
+        Blackhole.consumeCPU(LOOKUP_TOKENS);
+        return key;
+    }
+}
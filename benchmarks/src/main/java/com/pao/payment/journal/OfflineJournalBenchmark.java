@@ -0,0 +1,76 @@
+package com.pao.payment.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.pao.payment.domain.Payment;
+import com.pao.payment.domain.PaymentMethod;
+import com.pao.payment.domain.PaymentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latency of one journal append under each fsync policy, with percentiles.
+ * Lives in the journal's package because the lifecycle methods are package-private.
+ * The journal is written to a fresh directory under java.io.tmpdir each iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfflineJournalBenchmark {
+
+    private static final int SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    @Param({"NEVER", "INTERVAL", "ALWAYS"})
+    FsyncPolicy fsync;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private Path directory;
+    private OfflineJournal journal;
+    private JournalRecord record;
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        directory = Files.createTempDirectory("offline-journal-bench");
+        journal = new OfflineJournal(directory.toString(), SEGMENT_BYTES, fsync, 50, objectMapper);
+        journal.open();
+        record = new JournalRecord(Payment.builder()
+                .id("payment-1")
+                .orderId("order-1")
+                .terminalId("terminal-1")
+                .amount(new BigDecimal("42.50"))
+                .tipAmount(new BigDecimal("6.00"))
+                .totalAmount(new BigDecimal("48.50"))
+                .method(PaymentMethod.values()[0])
+                .status(PaymentStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .retryCount(0)
+                .idempotencyKey("terminal-1-0001")
+                .build(), true, "database unreachable");
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        journal.append(record);
+    }
+}
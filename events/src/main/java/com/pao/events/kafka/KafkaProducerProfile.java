@@ -0,0 +1,48 @@
+package com.pao.events.kafka;
+
+import lombok.Data;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer batching settings, picked by {@code pos.kafka.producer.profile}.
+ * LATENCY sends almost immediately; THROUGHPUT waits a little to fill larger,
+ * better-compressed batches. Any individual setting can be overridden.
+ * Each service binds it as a bean under {@code pos.kafka.producer}.
+ */
+@Data
+public class KafkaProducerProfile {
+
+    public enum Mode {
+        LATENCY(0, 16 * 1024, "lz4"),
+        THROUGHPUT(20, 256 * 1024, "zstd");
+
+        private final int lingerMs;
+        private final int batchSize;
+        private final String compressionType;
+
+        Mode(int lingerMs, int batchSize, String compressionType) {
+            this.lingerMs = lingerMs;
+            this.batchSize = batchSize;
+            this.compressionType = compressionType;
+        }
+    }
+
+    private Mode profile = Mode.LATENCY;
+    private Integer lingerMs;
+    private Integer batchSize;
+    private String compressionType;
+    // Idempotent producers keep per-partition ordering only up to 5 in-flight requests
+    private int maxInFlight = 5;
+
+    public Map<String, Object> toConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs != null ? lingerMs : profile.lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize != null ? batchSize : profile.batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType != null ? compressionType : profile.compressionType);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, Math.min(maxInFlight, 5));
+        return config;
+    }
+}
@@ -0,0 +1,80 @@
+package com.pao.events.serialization;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads Avro single-object encoded events into the generated class of the
+ * same name, resolving the writer schema through the {@link FileSchemaRegistry}.
+ * Events with no matching class on this service's classpath come back as
+ * {@code null} so listeners can filter them out.
+ */
+public class AvroEventDeserializer implements Deserializer<SpecificRecord> {
+
+    // Generated classes whose schemas are registered up front, so same-version events never touch the registry dir
+    public static final String KNOWN_TYPES_CONFIG = "pos.avro.known-types";
+
+    private FileSchemaRegistry registry;
+    private final Map<Long, Optional<BinaryMessageDecoder<SpecificRecord>>> decoders = new ConcurrentHashMap<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object dir = configs.get(AvroEventSerializer.REGISTRY_DIR_CONFIG);
+        registry = new FileSchemaRegistry(Path.of(dir != null ? dir.toString() : AvroEventSerializer.DEFAULT_REGISTRY_DIR));
+
+        if (configs.get(KNOWN_TYPES_CONFIG) instanceof Collection<?> types) {
+            for (Object type : types) {
+                registry.register(SpecificData.getForClass((Class<?>) type).getSchema((Class<?>) type));
+            }
+        }
+    }
+
+    @Override
+    public SpecificRecord deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < 10 || data[0] != (byte) 0xC3 || data[1] != (byte) 0x01) {
+            throw new SerializationException("Not an Avro single-object encoded event on topic " + topic);
+        }
+
+        long fingerprint = ByteBuffer.wrap(data, 2, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        Optional<BinaryMessageDecoder<SpecificRecord>> decoder = decoders.computeIfAbsent(fingerprint, this::decoderFor);
+        if (decoder.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return decoder.get().decode(data);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to decode event on topic " + topic, e);
+        }
+    }
+
+    private Optional<BinaryMessageDecoder<SpecificRecord>> decoderFor(long fingerprint) {
+        Schema writer = registry.findByFingerprint(fingerprint);
+        if (writer == null) {
+            throw new SerializationException("Unknown schema fingerprint " + Long.toHexString(fingerprint));
+        }
+
+        Class<?> type = SpecificData.get().getClass(writer);
+        if (type == null) {
+            return Optional.empty();
+        }
+        SpecificData model = SpecificData.getForClass(type);
+        return Optional.of(new BinaryMessageDecoder<>(model, model.getSchema(type), registry));
+    }
+}
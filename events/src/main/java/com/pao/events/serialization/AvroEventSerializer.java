@@ -0,0 +1,61 @@
+package com.pao.events.serialization;
+
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes generated event classes in Avro single-object encoding: a 2-byte
+ * marker, the 8-byte schema fingerprint, then the binary record. No field
+ * names or text-formatted numbers and dates go over the wire.
+ */
+public class AvroEventSerializer implements Serializer<SpecificRecord> {
+
+    public static final String REGISTRY_DIR_CONFIG = "pos.schema-registry.dir";
+    public static final String DEFAULT_REGISTRY_DIR = "schema-registry";
+
+    private FileSchemaRegistry registry;
+    private final Map<Class<?>, BinaryMessageEncoder<SpecificRecord>> encoders = new ConcurrentHashMap<>();
+
+    public AvroEventSerializer() {
+    }
+
+    public AvroEventSerializer(FileSchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (registry == null) {
+            Object dir = configs.get(REGISTRY_DIR_CONFIG);
+            registry = new FileSchemaRegistry(Path.of(dir != null ? dir.toString() : DEFAULT_REGISTRY_DIR));
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, SpecificRecord data) {
+        if (data == null) {
+            return null;
+        }
+        BinaryMessageEncoder<SpecificRecord> encoder = encoders.computeIfAbsent(data.getClass(), type -> {
+            registry.register(data.getSchema());
+            return new BinaryMessageEncoder<>(SpecificData.getForSchema(data.getSchema()), data.getSchema());
+        });
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            encoder.encode(data, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Failed to encode " + data.getSchema().getFullName(), e);
+        }
+    }
+}
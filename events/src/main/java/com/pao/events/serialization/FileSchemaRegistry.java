@@ -0,0 +1,87 @@
+package com.pao.events.serialization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.message.SchemaStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local stand-in for a schema registry. Schemas are kept as
+ * {@code <dir>/<full name>/<fingerprint>.avsc} in a directory shared by the
+ * services: producers register each writer schema the first time they use it,
+ * consumers resolve the fingerprint carried in every message and rescan the
+ * directory when they meet one they have not seen.
+ */
+@Slf4j
+public class FileSchemaRegistry implements SchemaStore {
+
+    private final Path directory;
+    private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+    // A lock rather than synchronized: the scan does file I/O and must not pin a virtual thread's carrier
+    private final ReentrantLock rescanLock = new ReentrantLock();
+
+    public FileSchemaRegistry(Path directory) {
+        this.directory = directory;
+    }
+
+    public long register(Schema schema) {
+        long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        if (schemas.putIfAbsent(fingerprint, schema) == null) {
+            Path file = directory.resolve(schema.getFullName()).resolve(Long.toHexString(fingerprint) + ".avsc");
+            try {
+                if (Files.notExists(file)) {
+                    Files.createDirectories(file.getParent());
+                    Path tmp = Files.createTempFile(file.getParent(), "schema", ".tmp");
+                    Files.writeString(tmp, schema.toString(true));
+                    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                // Consumers that share this schema version still resolve it from their own classes
+                log.warn("Could not write schema {} to registry at {}", schema.getFullName(), directory, e);
+            }
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public Schema findByFingerprint(long fingerprint) {
+        Schema schema = schemas.get(fingerprint);
+        if (schema == null) {
+            rescan();
+            schema = schemas.get(fingerprint);
+        }
+        return schema;
+    }
+
+    private void rescan() {
+        rescanLock.lock();
+        try {
+            if (Files.notExists(directory)) {
+                return;
+            }
+            try (Stream<Path> files = Files.walk(directory, 2)) {
+                files.filter(f -> f.toString().endsWith(".avsc")).forEach(f -> {
+                    try {
+                        Schema schema = new Schema.Parser().parse(f.toFile());
+                        schemas.putIfAbsent(SchemaNormalization.parsingFingerprint64(schema), schema);
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Skipping unreadable schema file {}", f, e);
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Could not scan schema registry at {}", directory, e);
+            }
+        } finally {
+            rescanLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.pao.events.kafka;
+
+import com.pao.events.ModificationDTO;
+import com.pao.events.OrderItemDTO;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.events.serialization.AvroEventSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both producer profiles sending order events to an in-process broker with
+ * acks=all and idempotence, as the services send them: first a burst as fast
+ * as the producer takes them, then a steady rate well below what either
+ * profile can carry. Each send is timed from the call to its callback.
+ */
+@Slf4j
+@EmbeddedKafka(partitions = 3, topics = KafkaProducerProfileLoadTest.TOPIC)
+class KafkaProducerProfileLoadTest {
+
+    static final String TOPIC = "order-events";
+    private static final int WARM_UP = 2_000;
+    private static final int EVENTS = 20_000;
+    private static final int PACED_EVENTS = 500;
+    private static final int PACED_PER_SECOND = 100;
+
+    @TempDir
+    Path registryDir;
+
+    @Test
+    void throughputBatchesMoreAndLatencyAnswersSooner(EmbeddedKafkaBroker broker) throws Exception {
+        Result latency = run(broker, KafkaProducerProfile.Mode.LATENCY);
+        Result throughput = run(broker, KafkaProducerProfile.Mode.THROUGHPUT);
+
+        for (Result result : List.of(latency, throughput)) {
+            log.info(String.format("%s burst: %d events/s, p99 %.1f ms, %d records/request, compression %.2f; "
+                            + "at %d/s: p50 %.1f ms, p99 %.1f ms",
+                    result.mode(), Math.round(result.eventsPerSecond()), result.burstP99Millis(),
+                    Math.round(result.recordsPerRequest()), result.compressionRate(),
+                    PACED_PER_SECOND, result.pacedP50Millis(), result.pacedP99Millis()));
+            assertThat(result.failed()).isZero();
+        }
+        assertThat(throughput.recordsPerRequest()).isGreaterThan(latency.recordsPerRequest());
+        assertThat(throughput.compressionRate()).isLessThan(latency.compressionRate());
+        // Below the batch size a throughput producer waits out its linger on every send
+        assertThat(latency.pacedP50Millis()).isLessThan(throughput.pacedP50Millis());
+    }
+
+    private Result run(EmbeddedKafkaBroker broker, KafkaProducerProfile.Mode mode) throws InterruptedException {
+        KafkaProducerProfile profile = new KafkaProducerProfile();
+        profile.setProfile(mode);
+        Map<String, Object> config = new HashMap<>(profile.toConfig());
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(AvroEventSerializer.REGISTRY_DIR_CONFIG, registryDir.toString());
+
+        try (KafkaProducer<String, SpecificRecord> producer =
+                     new KafkaProducer<>(config, new StringSerializer(), configured(config))) {
+            send(producer, WARM_UP, 0, new long[WARM_UP]);
+            long[] burst = new long[EVENTS];
+            long start = System.nanoTime();
+            int failed = send(producer, EVENTS, 0, burst);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            // Client metrics are lifetime averages, so they cover the warm-up and the burst
+            double recordsPerRequest = metric(producer, "records-per-request-avg");
+            double compressionRate = metric(producer, "compression-rate-avg");
+
+            long[] paced = new long[PACED_EVENTS];
+            failed += send(producer, PACED_EVENTS, PACED_PER_SECOND, paced);
+
+            return new Result(mode, EVENTS / seconds, percentileMillis(burst, 0.99),
+                    recordsPerRequest, compressionRate,
+                    percentileMillis(paced, 0.5), percentileMillis(paced, 0.99), failed);
+        }
+    }
+
+    // perSecond 0 sends as fast as the producer accepts
+    private static int send(KafkaProducer<String, SpecificRecord> producer, int events, int perSecond,
+                            long[] latencies) throws InterruptedException {
+        CountDownLatch acked = new CountDownLatch(events);
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            if (perSecond > 0) {
+                LockSupport.parkNanos(start + i * 1_000_000_000L / perSecond - System.nanoTime());
+            }
+            OrderSubmittedEvent event = orderSubmitted("order-" + i);
+            int slot = i;
+            long sent = System.nanoTime();
+            producer.send(new ProducerRecord<>(TOPIC, event.getOrderId(), event), (metadata, exception) -> {
+                latencies[slot] = System.nanoTime() - sent;
+                if (exception != null) {
+                    failed.incrementAndGet();
+                }
+                acked.countDown();
+            });
+        }
+        assertThat(acked.await(120, TimeUnit.SECONDS)).isTrue();
+        return failed.get();
+    }
+
+    private static double percentileMillis(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * percentile) - 1] / 1_000_000.0;
+    }
+
+    private static AvroEventSerializer configured(Map<String, Object> config) {
+        AvroEventSerializer serializer = new AvroEventSerializer();
+        serializer.configure(config, false);
+        return serializer;
+    }
+
+    private static double metric(KafkaProducer<?, ?> producer, String name) {
+        return producer.metrics().entrySet().stream()
+                .filter(entry -> entry.getKey().name().equals(name) && entry.getKey().group().equals("producer-metrics"))
+                .mapToDouble(entry -> ((Number) entry.getValue().metricValue()).doubleValue())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static OrderSubmittedEvent orderSubmitted(String orderId) {
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            items.add(OrderItemDTO.newBuilder()
+                    .setItemId(orderId + "-item-" + i)
+                    .setMenuItemId("menu-" + i)
+                    .setName("Menu item " + i)
+                    .setQuantity(1)
+                    .setUnitPrice(new BigDecimal("18.50"))
+                    .setCourseType(i == 0 ? "APPETIZER" : "MAIN")
+                    .setModifications(List.of(ModificationDTO.newBuilder().setName("No onions").build()))
+                    .build());
+        }
+        return OrderSubmittedEvent.newBuilder()
+                .setOrderId(orderId)
+                .setTableId("TABLE-" + orderId.hashCode() % 40)
+                .setTotal(new BigDecimal("74.00"))
+                .setItems(items)
+                .setTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .build();
+    }
+
+    private record Result(KafkaProducerProfile.Mode mode, double eventsPerSecond, double burstP99Millis,
+                          double recordsPerRequest, double compressionRate,
+                          double pacedP50Millis, double pacedP99Millis, int failed) {
+    }
+}
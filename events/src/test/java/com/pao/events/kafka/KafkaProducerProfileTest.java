@@ -0,0 +1,54 @@
+package com.pao.events.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaProducerProfileTest {
+
+    @Test
+    void latencyIsTheDefault() {
+        assertThat(bind(Map.of()).toConfig()).containsAllEntriesOf(Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, 0,
+                ProducerConfig.BATCH_SIZE_CONFIG, 16 * 1024,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5));
+    }
+
+    @Test
+    void throughputLingersForLargerCompressedBatches() {
+        assertThat(bind(Map.of("pos.kafka.producer.profile", "THROUGHPUT")).toConfig()).containsAllEntriesOf(Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, 20,
+                ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd"));
+    }
+
+    @Test
+    void individualSettingsOverrideTheProfile() {
+        Map<String, Object> config = bind(Map.of(
+                "pos.kafka.producer.profile", "THROUGHPUT",
+                "pos.kafka.producer.linger-ms", "5",
+                "pos.kafka.producer.compression-type", "gzip")).toConfig();
+
+        assertThat(config).containsEntry(ProducerConfig.LINGER_MS_CONFIG, 5)
+                .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024)
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "gzip");
+    }
+
+    @Test
+    void inFlightRequestsStayWithinTheIdempotentOrderingLimit() {
+        assertThat(bind(Map.of("pos.kafka.producer.max-in-flight", "10")).toConfig())
+                .containsEntry(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+    }
+
+    private static KafkaProducerProfile bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("pos.kafka.producer", KafkaProducerProfile.class)
+                .orElseGet(KafkaProducerProfile::new);
+    }
+}
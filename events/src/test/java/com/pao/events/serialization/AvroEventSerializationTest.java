@@ -0,0 +1,153 @@
+package com.pao.events.serialization;
+
+import com.pao.events.ModificationDTO;
+import com.pao.events.OrderItemDTO;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.events.TicketCreatedEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvroEventSerializationTest {
+
+    @TempDir
+    Path registryDir;
+
+    @Test
+    void roundTripsNestedRecordsDecimalsAndTimestamps() {
+        OrderSubmittedEvent event = OrderSubmittedEvent.newBuilder()
+                .setOrderId("order-1")
+                .setTableId("TABLE-5")
+                .setTotal(new BigDecimal("110.00"))
+                .setItems(List.of(OrderItemDTO.newBuilder()
+                        .setItemId("item-1")
+                        .setMenuItemId("ribeye")
+                        .setName("Ribeye Steak")
+                        .setQuantity(2)
+                        .setUnitPrice(new BigDecimal("55.00"))
+                        .setCourseType("MAIN")
+                        .setModifications(List.of(ModificationDTO.newBuilder()
+                                .setName("Medium rare")
+                                .setPriceAdjustment(new BigDecimal("0.00"))
+                                .build()))
+                        .build()))
+                .setTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .build();
+
+        byte[] bytes = serializer().serialize("kitchen-events", event);
+
+        assertThat(bytes[0]).isEqualTo((byte) 0xC3);
+        assertThat(bytes[1]).isEqualTo((byte) 0x01);
+        assertThat(deserializer().deserialize("kitchen-events", bytes)).isEqualTo(event);
+    }
+
+    @Test
+    void registersWriterSchemasForOtherServices() throws Exception {
+        serializer().serialize("kitchen-events", ticketCreated());
+
+        try (var files = Files.walk(registryDir)) {
+            assertThat(files.filter(f -> f.toString().endsWith(".avsc")))
+                    .singleElement()
+                    .satisfies(f -> assertThat(f.getParent().getFileName().toString())
+                            .isEqualTo("com.pao.events.TicketCreatedEvent"));
+        }
+    }
+
+    @Test
+    void readsEventsWrittenWithANewerSchemaVersion() throws IOException {
+        // A producer one release ahead added a defaulted field
+        Schema current = TicketCreatedEvent.getClassSchema();
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record(current.getName())
+                .namespace(current.getNamespace()).fields();
+        for (Schema.Field field : current.getFields()) {
+            fields = fields.name(field.name()).type(field.schema()).noDefault();
+        }
+        Schema newer = fields.name("courseRank").type().intType().intDefault(0).endRecord();
+
+        TicketCreatedEvent event = ticketCreated();
+        GenericRecord written = new GenericData.Record(newer);
+        for (Schema.Field field : current.getFields()) {
+            written.put(field.name(), event.get(field.name()));
+        }
+        written.put("courseRank", 2);
+
+        new FileSchemaRegistry(registryDir).register(newer);
+        GenericData model = new GenericData();
+        model.addLogicalTypeConversion(new TimeConversions.LocalTimestampMillisConversion());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryMessageEncoder<GenericRecord>(model, newer).encode(written, out);
+
+        assertThat(deserializer().deserialize("kitchen-events", out.toByteArray())).isEqualTo(event);
+    }
+
+    @Test
+    void knownTypesDecodeWithoutTheRegistryDirectory() {
+        byte[] bytes = serializer().serialize("kitchen-events", ticketCreated());
+
+        AvroEventDeserializer deserializer = new AvroEventDeserializer();
+        deserializer.configure(Map.of(
+                AvroEventSerializer.REGISTRY_DIR_CONFIG, registryDir.resolve("missing").toString(),
+                AvroEventDeserializer.KNOWN_TYPES_CONFIG, List.of(TicketCreatedEvent.class)), false);
+
+        assertThat(deserializer.deserialize("kitchen-events", bytes)).isEqualTo(ticketCreated());
+    }
+
+    @Test
+    void rejectsPayloadsThatAreNotSingleObjectEncoded() {
+        AvroEventDeserializer deserializer = deserializer();
+
+        assertThatThrownBy(() -> deserializer.deserialize("kitchen-events", "{\"orderId\":\"1\"}".getBytes()))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsUnknownFingerprints() {
+        byte[] bytes = serializer().serialize("kitchen-events", ticketCreated());
+        bytes[2] ^= 0x01;
+
+        assertThatThrownBy(() -> deserializer().deserialize("kitchen-events", bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("Unknown schema fingerprint");
+    }
+
+    private AvroEventSerializer serializer() {
+        AvroEventSerializer serializer = new AvroEventSerializer();
+        serializer.configure(Map.of(AvroEventSerializer.REGISTRY_DIR_CONFIG, registryDir.toString()), false);
+        return serializer;
+    }
+
+    private AvroEventDeserializer deserializer() {
+        AvroEventDeserializer deserializer = new AvroEventDeserializer();
+        deserializer.configure(Map.of(AvroEventSerializer.REGISTRY_DIR_CONFIG, registryDir.toString()), false);
+        return deserializer;
+    }
+
+    private static TicketCreatedEvent ticketCreated() {
+        return TicketCreatedEvent.newBuilder()
+                .setTicketId("ticket-1")
+                .setOrderId("order-1")
+                .setTableId("TABLE-5")
+                .setStationId("GRILL")
+                .setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+}
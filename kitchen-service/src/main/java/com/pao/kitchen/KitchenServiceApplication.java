@@ -2,8 +2,10 @@ package com.pao.kitchen;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class KitchenServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(KitchenServiceApplication.class, args);
@@ -0,0 +1,23 @@
+package com.pao.kitchen.board;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardDelta {
+
+    public enum Type {
+        UPSERT, REMOVE
+    }
+
+    // Increases by one per change, so a screen that sees a gap can resubscribe
+    private long sequence;
+    private Type type;
+    private String stationId;
+    private String ticketId;
+    // Null for REMOVE
+    private TicketView ticket;
+}
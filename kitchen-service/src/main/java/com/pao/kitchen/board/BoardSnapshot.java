@@ -0,0 +1,16 @@
+package com.pao.kitchen.board;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardSnapshot {
+    // Last delta already reflected in the tickets; screens skip deltas at or below it
+    private long sequence;
+    private List<TicketView> tickets;
+}
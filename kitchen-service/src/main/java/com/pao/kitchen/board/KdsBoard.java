@@ -0,0 +1,139 @@
+package com.pao.kitchen.board;
+
+import com.pao.kitchen.domain.TicketStatus;
+import com.pao.kitchen.eventstore.TicketEventStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory board of active tickets per station, rebuilt at startup from the
+ * ticket event log and kept current from committed {@link TicketView} changes. Screens read the
+ * board or subscribe for deltas, so no kitchen screen queries the database.
+ * <p>
+ * Deltas are fanned out on a single thread in the order they were applied.
+ * A new subscriber's snapshot is taken on that same thread, so it sees every
+ * change after its snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KdsBoard {
+
+    public static final Set<TicketStatus> ACTIVE = EnumSet.of(TicketStatus.NEW, TicketStatus.IN_PROGRESS);
+    private static final Comparator<TicketView> DISPLAY_ORDER =
+            Comparator.comparing(TicketView::getPriority, Comparator.reverseOrder())
+                    .thenComparing(TicketView::getReceivedAt);
+
+    private final TicketEventStore eventStore;
+
+    private final Map<String, Map<String, TicketView>> stations = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(r -> new Thread(r, "kds-board"));
+    private long sequence;
+
+    @PostConstruct
+    void load() {
+        List<TicketView> active = eventStore.rebuildActiveTickets();
+        active.forEach(ticket -> station(ticket.getStationId()).put(ticket.getTicketId(), ticket));
+        log.info("KDS board loaded with {} active tickets", active.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        broadcaster.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+    }
+
+    public List<TicketView> getTickets(String stationId) {
+        return sorted(stationId == null
+                ? stations.values().stream().flatMap(tickets -> tickets.values().stream())
+                : station(stationId).values().stream());
+    }
+
+    // Null stationId subscribes to every station
+    public SseEmitter subscribe(String stationId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(stationId, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        broadcaster.execute(() -> {
+            BoardSnapshot snapshot;
+            synchronized (this) {
+                snapshot = new BoardSnapshot(sequence, getTickets(stationId));
+            }
+            if (send(subscriber, "snapshot", snapshot)) {
+                subscribers.add(subscriber);
+            }
+        });
+        return emitter;
+    }
+
+    // Runs after commit, so a rolled back change never reaches a screen
+    @TransactionalEventListener
+    public synchronized void onTicketChanged(TicketView ticket) {
+        Map<String, TicketView> tickets = station(ticket.getStationId());
+        BoardDelta delta;
+        if (ACTIVE.contains(ticket.getStatus())) {
+            tickets.put(ticket.getTicketId(), ticket);
+            delta = new BoardDelta(++sequence, BoardDelta.Type.UPSERT, ticket.getStationId(), ticket.getTicketId(), ticket);
+        } else if (tickets.remove(ticket.getTicketId()) != null) {
+            delta = new BoardDelta(++sequence, BoardDelta.Type.REMOVE, ticket.getStationId(), ticket.getTicketId(), null);
+        } else {
+            return;
+        }
+
+        broadcaster.execute(() -> subscribers.stream()
+                .filter(subscriber -> subscriber.stationId() == null
+                        || subscriber.stationId().equals(delta.getStationId()))
+                .forEach(subscriber -> send(subscriber, "delta", delta)));
+    }
+
+    // Patches the board's copy; the bump path never loads the full ticket
+    @TransactionalEventListener
+    public synchronized void onItemReady(TicketItemReady event) {
+        TicketView current = station(event.getStationId()).get(event.getTicketId());
+        if (current == null) {
+            return;
+        }
+
+        onTicketChanged(current.withItemReady(event.getItemId(), event.isTicketCompleted()));
+    }
+
+    private boolean send(Subscriber subscriber, String name, Object data) {
+        try {
+            subscriber.emitter().send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping KDS subscriber for station {}", subscriber.stationId());
+            subscribers.remove(subscriber);
+            subscriber.emitter().completeWithError(e);
+            return false;
+        }
+    }
+
+    private Map<String, TicketView> station(String stationId) {
+        return stations.computeIfAbsent(stationId, id -> new ConcurrentHashMap<>());
+    }
+
+    private List<TicketView> sorted(Stream<TicketView> tickets) {
+        return tickets.sorted(DISPLAY_ORDER).collect(Collectors.toList());
+    }
+
+    private record Subscriber(String stationId, SseEmitter emitter) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.pao.kitchen.board;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when an item is bumped through the targeted update path, which
+ * never loads the ticket, so listeners patch their copies instead.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketItemReady {
+    private String ticketId;
+    private String orderId;
+    private String stationId;
+    private String itemId;
+    private boolean ticketCompleted;
+}
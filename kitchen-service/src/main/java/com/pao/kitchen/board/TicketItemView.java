@@ -0,0 +1,36 @@
+package com.pao.kitchen.board;
+
+import com.pao.kitchen.domain.ItemStatus;
+import com.pao.kitchen.domain.TicketItem;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TicketItemView {
+    private String itemId;
+    private String orderItemId;
+    private String itemName;
+    private Integer quantity;
+    private List<String> modifications;
+    private ItemStatus status;
+    private String courseType;
+
+    public static TicketItemView from(TicketItem item) {
+        return TicketItemView.builder()
+                .itemId(item.getId())
+                .orderItemId(item.getOrderItemId())
+                .itemName(item.getItemName())
+                .quantity(item.getQuantity())
+                .modifications(List.copyOf(item.getModifications()))
+                .status(item.getStatus())
+                .courseType(item.getCourseType())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.pao.kitchen.board;
+
+import com.pao.kitchen.domain.ItemStatus;
+import com.pao.kitchen.domain.KitchenTicket;
+import com.pao.kitchen.domain.TicketPriority;
+import com.pao.kitchen.domain.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Detached copy of a ticket as shown on the KDS. Views are replaced, never
+ * mutated, once they are on the board.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TicketView {
+    private String ticketId;
+    private String orderId;
+    private String tableId;
+    private String stationId;
+    private TicketStatus status;
+    private TicketPriority priority;
+    private LocalDateTime receivedAt;
+    private LocalDateTime startedAt;
+    private Integer estimatedMinutes;
+    private List<TicketItemView> items;
+
+    // Must run inside the transaction that loaded the ticket; reads the lazy items
+    public static TicketView from(KitchenTicket ticket) {
+        return TicketView.builder()
+                .ticketId(ticket.getId())
+                .orderId(ticket.getOrderId())
+                .tableId(ticket.getTableId())
+                .stationId(ticket.getStationId())
+                .status(ticket.getStatus())
+                .priority(ticket.getPriority())
+                .receivedAt(ticket.getReceivedAt())
+                .startedAt(ticket.getStartedAt())
+                .estimatedMinutes(ticket.getEstimatedMinutes())
+                .items(ticket.getItems().stream()
+                        .map(TicketItemView::from)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    public TicketView withItemReady(String itemId, boolean ticketCompleted) {
+        return toBuilder()
+                .items(items.stream()
+                        .map(item -> item.getItemId().equals(itemId)
+                                ? item.toBuilder().status(ItemStatus.READY).build()
+                                : item)
+                        .collect(Collectors.toList()))
+                .status(ticketCompleted ? TicketStatus.READY : status)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.pao.kitchen.config;
+
+import com.pao.kitchen.course.CourseProperties;
+import com.pao.kitchen.course.TimerWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(CourseProperties.class)
+public class CourseConfig {
+
+    // 1s ticks x 512 buckets: one lap covers ~8.5 minutes, longer delays just take extra rounds
+    @Bean(destroyMethod = "close")
+    public TimerWheel courseTimerWheel(@Value("${kitchen.courses.tick-ms:1000}") long tickMs,
+                                       @Value("${kitchen.courses.wheel-size:512}") int wheelSize) {
+        return new TimerWheel("course-timer", Duration.ofMillis(tickMs), wheelSize);
+    }
+}
@@ -1,28 +1,61 @@
 package com.pao.kitchen.config;
 
+import com.pao.events.ItemReadyEvent;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.events.TicketCompletedEvent;
+import com.pao.events.TicketCreatedEvent;
+import com.pao.events.serialization.AvroEventDeserializer;
+import com.pao.events.serialization.AvroEventSerializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 public class KafkaConsumerConfig {
 
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${pos.schema-registry.dir}")
+    private String schemaRegistryDir;
+
+    @Value("${kitchen.listener.concurrency:3}")
+    private int concurrency;
+
+    @Value("${kitchen.listener.max-poll-records:100}")
+    private int maxPollRecords;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${spring.kafka.listener.auto-startup:true}")
+    private boolean autoStartup;
+
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "kitchen-service");
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        // An undecodable record comes through as null and is filtered out instead of failing every poll
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, AvroEventDeserializer.class);
+        config.put(AvroEventSerializer.REGISTRY_DIR_CONFIG, schemaRegistryDir);
+        config.put(AvroEventDeserializer.KNOWN_TYPES_CONFIG, List.of(
+                OrderSubmittedEvent.class, TicketCreatedEvent.class, ItemReadyEvent.class, TicketCompletedEvent.class));
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         return new DefaultKafkaConsumerFactory<>(config);
     }
 
@@ -31,6 +64,34 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // kitchen-events also carries this service's own ticket events; only orders reach the listener
+        factory.setRecordFilterStrategy(record -> !(record.value() instanceof OrderSubmittedEvent));
+        factory.setAckDiscarded(true);
+        applyListenerSettings(factory, "kitchen-listener-");
         return factory;
     }
-}
\ No newline at end of file
+
+    // Record-mode factory for the retry topics; @RetryableTopic does not support batch listeners
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> retryListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        applyListenerSettings(factory, "kitchen-retry-listener-");
+        return factory;
+    }
+
+    // Boot only applies spring.threads.virtual.enabled and spring.kafka.listener.auto-startup
+    // to the factory it creates itself
+    private void applyListenerSettings(ConcurrentKafkaListenerContainerFactory<String, Object> factory, String prefix) {
+        factory.setAutoStartup(autoStartup);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.pao.kitchen.config;
+
+import com.pao.events.kafka.KafkaProducerProfile;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    // Bound here rather than on the class, so the events module stays free of Spring Boot
+    @Bean
+    @ConfigurationProperties(prefix = "pos.kafka.producer")
+    public KafkaProducerProfile kafkaProducerProfile() {
+        return new KafkaProducerProfile();
+    }
+
+    // Layers the batching profile over the spring.kafka.producer settings
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerProfileCustomizer(KafkaProducerProfile profile) {
+        return producerFactory -> producerFactory.updateConfigs(profile.toConfig());
+    }
+}
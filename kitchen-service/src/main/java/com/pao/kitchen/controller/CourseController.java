@@ -0,0 +1,22 @@
+package com.pao.kitchen.controller;
+
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.course.CourseScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/kitchen/orders")
+@RequiredArgsConstructor
+public class CourseController {
+
+    private final CourseScheduler courseScheduler;
+
+    // Fires the order's next held course immediately; empty when nothing is held
+    @PostMapping("/{orderId}/fire")
+    public ResponseEntity<List<TicketView>> fireNextCourse(@PathVariable(name = "orderId") String orderId) {
+        return ResponseEntity.ok(courseScheduler.fireNext(orderId));
+    }
+}
@@ -0,0 +1,26 @@
+package com.pao.kitchen.controller;
+
+import com.pao.kitchen.service.DeadLetterReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/kitchen/dlt")
+@RequiredArgsConstructor
+public class DeadLetterController {
+
+    private final DeadLetterReplayService replayService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Long>> getPending() {
+        return ResponseEntity.ok(Map.of("pending", replayService.countPending()));
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Integer>> replay(
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(Map.of("replayed", replayService.replay(limit)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.pao.kitchen.controller;
+
+import com.pao.kitchen.board.KdsBoard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/kitchen/board")
+@RequiredArgsConstructor
+public class KdsBoardController {
+
+    private final KdsBoard board;
+
+    // Sends a "snapshot" event, then a "delta" event per ticket change
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(name = "stationId", required = false) String stationId) {
+        return board.subscribe(stationId);
+    }
+}
@@ -1,6 +1,9 @@
 package com.pao.kitchen.controller;
 
+import com.pao.kitchen.board.KdsBoard;
+import com.pao.kitchen.board.TicketView;
 import com.pao.kitchen.domain.KitchenTicket;
+import com.pao.kitchen.service.ItemReadyResult;
 import com.pao.kitchen.service.KitchenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -13,23 +16,37 @@ import java.util.List;
 public class KitchenController {
 
     private final KitchenService kitchenService;
+    private final KdsBoard board;
 
+    // Served from the in-memory board; no database query per screen refresh
     @GetMapping("/active")
-    public ResponseEntity<List<KitchenTicket>> getActiveTickets() {
-        return ResponseEntity.ok(kitchenService.getActiveTickets());
+    public ResponseEntity<List<TicketView>> getActiveTickets(
+            @RequestParam(name = "stationId", required = false) String stationId) {
+        return ResponseEntity.ok(board.getTickets(stationId));
+    }
+
+    @PostMapping("/next")
+    public ResponseEntity<KitchenTicket> startNextTicket(@RequestParam(name = "stationId") String stationId) {
+        return kitchenService.startNextTicket(stationId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/{ticketId}/rush")
+    public ResponseEntity<KitchenTicket> rushTicket(@PathVariable(name = "ticketId") String ticketId) {
+        return ResponseEntity.ok(kitchenService.rushTicket(ticketId));
     }
 
     @PostMapping("/{ticketId}/start")
-    public ResponseEntity<KitchenTicket> startTicket(@PathVariable String ticketId) {
+    public ResponseEntity<KitchenTicket> startTicket(@PathVariable(name = "ticketId") String ticketId) {
         KitchenTicket ticket = kitchenService.startTicket(ticketId);
         return ResponseEntity.ok(ticket);
     }
 
     @PostMapping("/{ticketId}/items/{itemId}/ready")
-    public ResponseEntity<KitchenTicket> markItemReady(
-            @PathVariable String ticketId,
-            @PathVariable String itemId) {
-        KitchenTicket ticket = kitchenService.markItemReady(ticketId, itemId);
-        return ResponseEntity.ok(ticket);
+    public ResponseEntity<ItemReadyResult> markItemReady(
+            @PathVariable(name = "ticketId") String ticketId,
+            @PathVariable(name = "itemId") String itemId) {
+        return ResponseEntity.ok(kitchenService.markItemReady(ticketId, itemId));
     }
 }
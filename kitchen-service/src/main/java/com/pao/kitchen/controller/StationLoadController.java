@@ -0,0 +1,21 @@
+package com.pao.kitchen.controller;
+
+import com.pao.kitchen.estimation.PrepTimeEstimator;
+import com.pao.kitchen.estimation.StationLoad;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/kitchen/stations")
+@RequiredArgsConstructor
+public class StationLoadController {
+
+    private final PrepTimeEstimator prepTimeEstimator;
+
+    @GetMapping("/load")
+    public ResponseEntity<List<StationLoad>> getStationLoad() {
+        return ResponseEntity.ok(prepTimeEstimator.forecastLoad());
+    }
+}
@@ -0,0 +1,35 @@
+package com.pao.kitchen.course;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Course pacing. Items fire in {@code order}; a course is held until every
+ * earlier course of the order is ready, then fires after its pacing offset.
+ * Courses not listed (and items without one) go with the first course.
+ */
+@Data
+@ConfigurationProperties(prefix = "kitchen.courses")
+public class CourseProperties {
+
+    private List<String> order = new ArrayList<>(List.of("APPETIZER", "MAIN", "DESSERT"));
+    // Course -> minutes after the previous course is ready
+    private Map<String, Integer> pacingMinutes = new HashMap<>();
+    private int defaultPacingMinutes = 5;
+
+    public int rankOf(String courseType) {
+        int rank = courseType != null ? order.indexOf(courseType) : -1;
+        return Math.max(rank, 0);
+    }
+
+    public int pacingMinutesFor(int rank) {
+        return rank < order.size()
+                ? pacingMinutes.getOrDefault(order.get(rank), defaultPacingMinutes)
+                : defaultPacingMinutes;
+    }
+}
@@ -0,0 +1,130 @@
+package com.pao.kitchen.course;
+
+import com.pao.kitchen.board.TicketItemReady;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.domain.KitchenTicket;
+import com.pao.kitchen.domain.TicketStatus;
+import com.pao.kitchen.repository.KitchenTicketRepository;
+import com.pao.kitchen.service.KitchenService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds later courses and fires them once every earlier course of the order
+ * is ready, plus the course's pacing offset. Pending fires live on a timer
+ * wheel; their fire time is also stored on the held tickets so they are
+ * re-armed after a restart. A course whose earlier courses closed but which
+ * was never armed (the instance died in between) is armed at startup too.
+ */
+@Component
+@Slf4j
+public class CourseScheduler {
+
+    private static final Set<TicketStatus> OPEN = EnumSet.of(TicketStatus.HELD, TicketStatus.NEW, TicketStatus.IN_PROGRESS);
+
+    private final KitchenTicketRepository ticketRepository;
+    private final KitchenService kitchenService;
+    private final CourseProperties courseProperties;
+    private final TimerWheel timerWheel;
+    private final TransactionTemplate requiresNew;
+    // orderId -> pending fire; an order has at most one course waiting at a time
+    private final Map<String, TimerWheel.Timeout> timers = new ConcurrentHashMap<>();
+
+    public CourseScheduler(KitchenTicketRepository ticketRepository,
+                           KitchenService kitchenService,
+                           CourseProperties courseProperties,
+                           TimerWheel courseTimerWheel,
+                           PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.kitchenService = kitchenService;
+        this.courseProperties = courseProperties;
+        this.timerWheel = courseTimerWheel;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void rearm() {
+        List<KitchenTicket> scheduled = ticketRepository.findByStatusAndFireAtIsNotNull(TicketStatus.HELD);
+        scheduled.forEach(ticket -> schedule(ticket.getOrderId(), ticket.getCourseRank(), ticket.getFireAt()));
+        log.info("Re-armed {} held course tickets", scheduled.size());
+
+        List<String> unarmed = ticketRepository.findOrdersWithUnarmedCourses(OPEN);
+        unarmed.forEach(orderId -> armNextCourse(orderId, null));
+        if (!unarmed.isEmpty()) {
+            log.info("Armed the next course of {} orders whose previous course closed before it was armed", unarmed.size());
+        }
+    }
+
+    /**
+     * Runs after the completing bump commits. When two stations finish the
+     * same course at once, the later commit sees both tickets ready, so the
+     * next course is never stranded; the guarded update arms it only once.
+     */
+    @TransactionalEventListener
+    public void onItemReady(TicketItemReady event) {
+        if (event.isTicketCompleted()) {
+            armNextCourse(event.getOrderId(), LocalDateTime.now());
+        }
+    }
+
+    // Pacing counts from readyAt, or from the last completion of the earlier courses when it is null
+    private void armNextCourse(String orderId, LocalDateTime readyAt) {
+        ScheduledCourse next = requiresNew.execute(status -> {
+            Integer rank = ticketRepository.findNextUnscheduledCourse(orderId);
+            if (rank == null || ticketRepository.existsByOrderIdAndCourseRankLessThanAndStatusIn(orderId, rank, OPEN)) {
+                return null;
+            }
+            LocalDateTime from = readyAt != null ? readyAt
+                    : Objects.requireNonNullElseGet(ticketRepository.findLastCompletionBefore(orderId, rank), LocalDateTime::now);
+            LocalDateTime fireAt = from.plusMinutes(courseProperties.pacingMinutesFor(rank));
+            return ticketRepository.scheduleFire(orderId, rank, fireAt) > 0 ? new ScheduledCourse(rank, fireAt) : null;
+        });
+
+        if (next != null) {
+            log.info("Course {} of order {} fires at {}", next.rank(), orderId, next.fireAt());
+            schedule(orderId, next.rank(), next.fireAt());
+        }
+    }
+
+    // Fires the order's next held course now, e.g. when the server calls for it
+    public List<TicketView> fireNext(String orderId) {
+        TimerWheel.Timeout pending = timers.remove(orderId);
+        if (pending != null) {
+            pending.cancel();
+        }
+        Integer rank = ticketRepository.findNextHeldCourse(orderId);
+        return rank != null ? kitchenService.fireCourse(orderId, rank) : List.of();
+    }
+
+    private void schedule(String orderId, int rank, LocalDateTime fireAt) {
+        Duration delay = Duration.between(LocalDateTime.now(), fireAt);
+        TimerWheel.Timeout[] self = new TimerWheel.Timeout[1];
+        self[0] = timerWheel.schedule(() -> {
+            timers.remove(orderId, self[0]);
+            kitchenService.fireCourse(orderId, rank);
+        }, delay);
+
+        TimerWheel.Timeout previous = timers.put(orderId, self[0]);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private record ScheduledCourse(int rank, LocalDateTime fireAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.pao.kitchen.dispatch;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Immutable queue entry. {@code rank} is the arrival time shifted by the
+ * priority head start, so it never changes while the ticket waits.
+ */
+public record QueuedTicket(String ticketId, String stationId, boolean rush, LocalDateTime rank)
+        implements Comparable<QueuedTicket> {
+
+    private static final Comparator<QueuedTicket> DISPATCH_ORDER = Comparator
+            .comparing(QueuedTicket::rush, Comparator.reverseOrder())
+            .thenComparing(QueuedTicket::rank)
+            .thenComparing(QueuedTicket::ticketId);
+
+    @Override
+    public int compareTo(QueuedTicket other) {
+        return DISPATCH_ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,120 @@
+package com.pao.kitchen.dispatch;
+
+import com.pao.kitchen.board.KdsBoard;
+import com.pao.kitchen.board.TicketItemReady;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.domain.TicketPriority;
+import com.pao.kitchen.domain.TicketStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-station dispatch queues of NEW tickets, so a station pulls its next
+ * ticket without a database query.
+ * <p>
+ * Each station is a concurrent skip list ordered by RUSH first, then by rank.
+ * Rank is the arrival time moved earlier by {@code priority-step-minutes} per
+ * level above NORMAL (later for LOW). Aging therefore needs no re-sorting:
+ * a NORMAL ticket that has waited one step longer than a HIGH ticket is
+ * served first. Polls are non-blocking. Re-prioritizing is a remove plus an
+ * insert, O(log n), serialized per ticket through the index map.
+ */
+@Component
+@Slf4j
+public class TicketDispatcher {
+
+    private final Duration priorityStep;
+    private final Map<String, NavigableSet<QueuedTicket>> stations = new ConcurrentHashMap<>();
+    private final Map<String, QueuedTicket> queued = new ConcurrentHashMap<>();
+
+    public TicketDispatcher(KdsBoard board,
+                            @Value("${kitchen.dispatch.priority-step-minutes:10}") long priorityStepMinutes) {
+        this.priorityStep = Duration.ofMinutes(priorityStepMinutes);
+        board.getTickets(null).forEach(this::update);
+        log.info("Dispatch queues loaded with {} waiting tickets", queued.size());
+    }
+
+    @TransactionalEventListener
+    public void onTicketChanged(TicketView ticket) {
+        update(ticket);
+    }
+
+    @TransactionalEventListener
+    public void onItemReady(TicketItemReady event) {
+        if (event.isTicketCompleted()) {
+            remove(event.getTicketId());
+        }
+    }
+
+    // Removes and returns the station's next ticket; each ticket is handed out once
+    public Optional<QueuedTicket> pollNext(String stationId) {
+        QueuedTicket next = station(stationId).pollFirst();
+        if (next == null) {
+            return Optional.empty();
+        }
+        queued.remove(next.ticketId(), next);
+        return Optional.of(next);
+    }
+
+    // Puts back a ticket whose start failed after it was polled
+    public void requeue(QueuedTicket ticket) {
+        queued.compute(ticket.ticketId(), (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            station(ticket.stationId()).add(ticket);
+            return ticket;
+        });
+    }
+
+    public int size(String stationId) {
+        return station(stationId).size();
+    }
+
+    private void update(TicketView ticket) {
+        if (ticket.getStatus() != TicketStatus.NEW) {
+            remove(ticket.getTicketId());
+            return;
+        }
+
+        QueuedTicket entry = toEntry(ticket);
+        queued.compute(ticket.getTicketId(), (id, current) -> {
+            if (entry.equals(current)) {
+                return current;
+            }
+            // A failed remove means a station polled it meanwhile; don't hand it out twice
+            if (current != null && !station(current.stationId()).remove(current)) {
+                return null;
+            }
+            station(entry.stationId()).add(entry);
+            return entry;
+        });
+    }
+
+    private void remove(String ticketId) {
+        queued.computeIfPresent(ticketId, (id, current) -> {
+            station(current.stationId()).remove(current);
+            return null;
+        });
+    }
+
+    private QueuedTicket toEntry(TicketView ticket) {
+        TicketPriority priority = ticket.getPriority() != null ? ticket.getPriority() : TicketPriority.NORMAL;
+        long steps = priority.ordinal() - TicketPriority.NORMAL.ordinal();
+        return new QueuedTicket(ticket.getTicketId(), ticket.getStationId(),
+                priority == TicketPriority.RUSH, ticket.getReceivedAt().minus(priorityStep.multipliedBy(steps)));
+    }
+
+    private NavigableSet<QueuedTicket> station(String stationId) {
+        return stations.computeIfAbsent(stationId, id -> new ConcurrentSkipListSet<>());
+    }
+}
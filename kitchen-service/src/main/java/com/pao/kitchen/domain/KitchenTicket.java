@@ -1,5 +1,6 @@
 package com.pao.kitchen.domain;
 
+import com.pao.persistence.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,13 +12,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "kitchen_tickets")
+// One ticket per order, station and course, so a redelivered order cannot create a second set
+@Table(name = "kitchen_tickets", uniqueConstraints = @UniqueConstraint(name = "uk_tickets_order_station_course",
+        columnNames = {"order_id", "station_id", "course_rank"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class KitchenTicket {
     @Id
+    @TimeOrderedId
     private String id;
 
     private String orderId;
@@ -40,6 +44,19 @@ public class KitchenTicket {
 
     private Integer estimatedMinutes;
 
+    // Position in the course order; HELD tickets wait for every lower course of the order
+    private Integer courseRank;
+    private LocalDateTime fireAt;
+
+    // Maintained only by KitchenTicketRepository's counter updates, so entity saves never overwrite them
+    @Column(updatable = false)
+    private Integer itemCount;
+    @Column(updatable = false)
+    private Integer readyCount;
+
+    @Version
+    private Long version;
+
     public void addItem(TicketItem item) {
         items.add(item);
         item.setTicket(this);
@@ -0,0 +1,38 @@
+package com.pao.kitchen.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of one committed ticket change. Rows are never updated
+ * or deleted; the board projection is rebuilt from them.
+ */
+@Entity
+@Table(name = "ticket_events", indexes = @Index(name = "idx_ticket_events_recorded", columnList = "recordedAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketEvent {
+    // Not pooled: every change to a ticket takes its row lock first, so with one
+    // shared sequence a ticket's events are numbered in commit order on every replica
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_event_seq")
+    @SequenceGenerator(name = "ticket_event_seq", sequenceName = "ticket_event_seq", allocationSize = 1)
+    private Long seq;
+
+    private String ticketId;
+
+    @Enumerated(EnumType.STRING)
+    private TicketEventType type;
+
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    private LocalDateTime recordedAt;
+}
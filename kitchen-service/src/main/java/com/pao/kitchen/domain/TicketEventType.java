@@ -0,0 +1,8 @@
+package com.pao.kitchen.domain;
+
+public enum TicketEventType {
+    // Payload is the full TicketView after the change
+    TICKET_CHANGED,
+    // Payload is a TicketItemReady; the bump path never builds a full view
+    ITEM_READY
+}
@@ -1,5 +1,6 @@
 package com.pao.kitchen.domain;
 
+import com.pao.persistence.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,7 @@ import java.util.List;
 @Builder
 public class TicketItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,6 +27,7 @@ public class TicketItem {
     private KitchenTicket ticket;
 
     private String orderItemId;
+    private String menuItemId;
     private String itemName;
     private Integer quantity;
 
@@ -0,0 +1,27 @@
+package com.pao.kitchen.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Active board folded up to event seq; payload is a JSON list of ProjectedTicket
+@Entity
+@Table(name = "ticket_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketSnapshot {
+    @Id
+    private Long seq;
+
+    private LocalDateTime takenAt;
+    private Integer ticketCount;
+
+    @Column(columnDefinition = "text")
+    private String payload;
+}
@@ -1,6 +1,6 @@
 package com.pao.kitchen.domain;
 
 public enum TicketStatus {
-    NEW, IN_PROGRESS, READY, DELIVERED, CANCELLED
+    HELD, NEW, IN_PROGRESS, READY, DELIVERED, CANCELLED
 }
 
@@ -0,0 +1,88 @@
+package com.pao.kitchen.estimation;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile estimate using the P-square algorithm (Jain and
+ * Chlamtac): five markers, O(1) memory and O(1) per observation.
+ * Not thread-safe; callers synchronize.
+ */
+final class P2Quantile {
+
+    private final double p;
+    private final double[] heights = new double[5];
+    private final int[] positions = {0, 1, 2, 3, 4};
+    private final double[] desired;
+    private final double[] increments;
+    private int count;
+
+    P2Quantile(double p) {
+        this.p = p;
+        this.desired = new double[]{0, 2 * p, 4 * p, 2 + 2 * p, 4};
+        this.increments = new double[]{0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    void add(double x) {
+        if (count < 5) {
+            heights[count++] = x;
+            if (count == 5) {
+                Arrays.sort(heights);
+            }
+            return;
+        }
+        count++;
+
+        int k;
+        if (x < heights[0]) {
+            heights[0] = x;
+            k = 0;
+        } else if (x >= heights[4]) {
+            heights[4] = x;
+            k = 3;
+        } else {
+            k = 0;
+            while (x >= heights[k + 1]) {
+                k++;
+            }
+        }
+
+        for (int i = k + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            double d = desired[i] - positions[i];
+            if ((d >= 1 && positions[i + 1] - positions[i] > 1) || (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = d > 0 ? 1 : -1;
+                double candidate = parabolic(i, step);
+                heights[i] = heights[i - 1] < candidate && candidate < heights[i + 1] ? candidate : linear(i, step);
+                positions[i] += step;
+            }
+        }
+    }
+
+    double value() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < 5) {
+            double[] seen = Arrays.copyOf(heights, count);
+            Arrays.sort(seen);
+            return seen[(int) Math.min(count - 1, Math.round(p * (count - 1)))];
+        }
+        return heights[2];
+    }
+
+    private double parabolic(int i, int step) {
+        return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+                * ((positions[i] - positions[i - 1] + step) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i])
+                + (positions[i + 1] - positions[i] - step) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+    }
+
+    private double linear(int i, int step) {
+        return heights[i] + step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+    }
+}
@@ -0,0 +1,21 @@
+package com.pao.kitchen.estimation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One prepared item. Published by KitchenService when an item is marked
+ * ready and read back from ticket history to warm up the estimator.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrepSample {
+    private String stationId;
+    private String menuItemId;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
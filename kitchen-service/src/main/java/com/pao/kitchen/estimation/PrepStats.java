@@ -0,0 +1,38 @@
+package com.pao.kitchen.estimation;
+
+/**
+ * Running prep-time statistics in minutes: an EWMA that follows recent
+ * pace and a P-square p90 for conservative quotes. Writers synchronize;
+ * readers see the last published values without locking.
+ */
+final class PrepStats {
+
+    private final double alpha;
+    private final P2Quantile p90 = new P2Quantile(0.9);
+    private volatile double ewmaMinutes = Double.NaN;
+    private volatile double p90Minutes = Double.NaN;
+    private volatile long samples;
+
+    PrepStats(double alpha) {
+        this.alpha = alpha;
+    }
+
+    synchronized void record(double minutes) {
+        ewmaMinutes = Double.isNaN(ewmaMinutes) ? minutes : alpha * minutes + (1 - alpha) * ewmaMinutes;
+        p90.add(minutes);
+        p90Minutes = p90.value();
+        samples++;
+    }
+
+    double ewmaMinutes() {
+        return ewmaMinutes;
+    }
+
+    double p90Minutes() {
+        return p90Minutes;
+    }
+
+    long samples() {
+        return samples;
+    }
+}
@@ -0,0 +1,139 @@
+package com.pao.kitchen.estimation;
+
+import com.pao.events.OrderItemDTO;
+import com.pao.kitchen.board.KdsBoard;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.domain.TicketStatus;
+import com.pao.kitchen.repository.KitchenTicketRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Learns item prep times (started to ready) per station and menu item as
+ * items are marked ready, and estimates tickets from them with O(1) map
+ * lookups. Items the station has never made fall back to the station-wide
+ * statistics, then to the old fixed formula.
+ */
+@Component
+@Slf4j
+public class PrepTimeEstimator {
+
+    private static final int FALLBACK_MINUTES_PER_ITEM = 5;
+    private static final int FALLBACK_BASE_MINUTES = 10;
+
+    private final KitchenTicketRepository ticketRepository;
+    private final KdsBoard board;
+    private final double alpha;
+    private final int warmupDays;
+
+    // stationId -> menuItemId -> stats
+    private final Map<String, Map<String, PrepStats>> byItem = new ConcurrentHashMap<>();
+    private final Map<String, PrepStats> byStation = new ConcurrentHashMap<>();
+
+    public PrepTimeEstimator(KitchenTicketRepository ticketRepository,
+                             KdsBoard board,
+                             @Value("${kitchen.estimation.ewma-alpha:0.2}") double alpha,
+                             @Value("${kitchen.estimation.warmup-days:14}") int warmupDays) {
+        this.ticketRepository = ticketRepository;
+        this.board = board;
+        this.alpha = alpha;
+        this.warmupDays = warmupDays;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        List<PrepSample> history = ticketRepository.findPrepSamplesSince(LocalDateTime.now().minusDays(warmupDays));
+        history.forEach(this::record);
+        log.info("Prep-time estimator warmed up from {} prepared items", history.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemPrepared(PrepSample sample) {
+        record(sample);
+    }
+
+    /**
+     * Minutes until the slowest item of a station's ticket is ready, assuming
+     * the station cooks a ticket's items in parallel.
+     */
+    public int estimateMinutes(String stationId, List<OrderItemDTO> items) {
+        Map<String, PrepStats> stationItems = byItem.getOrDefault(stationId, Map.of());
+        PrepStats station = byStation.get(stationId);
+
+        double slowest = 0;
+        boolean learned = false;
+        for (OrderItemDTO item : items) {
+            PrepStats stats = item.getMenuItemId() != null ? stationItems.get(item.getMenuItemId()) : null;
+            if (stats == null) {
+                stats = station;
+            }
+            if (stats != null) {
+                slowest = Math.max(slowest, stats.ewmaMinutes());
+                learned = true;
+            }
+        }
+        if (!learned) {
+            return items.size() * FALLBACK_MINUTES_PER_ITEM + FALLBACK_BASE_MINUTES;
+        }
+        return Math.max(1, (int) Math.ceil(slowest));
+    }
+
+    public List<StationLoad> forecastLoad() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<TicketView>> tickets = board.getTickets(null).stream()
+                .collect(Collectors.groupingBy(TicketView::getStationId, TreeMap::new, Collectors.toList()));
+        byStation.keySet().forEach(stationId -> tickets.putIfAbsent(stationId, List.of()));
+
+        List<StationLoad> loads = new ArrayList<>(tickets.size());
+        tickets.forEach((stationId, active) -> {
+            long backlog = 0;
+            int inProgress = 0;
+            for (TicketView ticket : active) {
+                long estimate = ticket.getEstimatedMinutes() != null ? ticket.getEstimatedMinutes() : 0;
+                if (ticket.getStatus() == TicketStatus.IN_PROGRESS && ticket.getStartedAt() != null) {
+                    inProgress++;
+                    estimate = Math.max(0, estimate - Duration.between(ticket.getStartedAt(), now).toMinutes());
+                }
+                backlog += estimate;
+            }
+
+            PrepStats station = byStation.get(stationId);
+            loads.add(StationLoad.builder()
+                    .stationId(stationId)
+                    .queuedTickets(active.size() - inProgress)
+                    .inProgressTickets(inProgress)
+                    .backlogMinutes(backlog)
+                    .estimatedClearAt(now.plusMinutes(backlog))
+                    .itemPrepEwmaMinutes(station != null ? station.ewmaMinutes() : null)
+                    .itemPrepP90Minutes(station != null ? station.p90Minutes() : null)
+                    .build());
+        });
+        return loads;
+    }
+
+    private void record(PrepSample sample) {
+        if (sample.getStartedAt() == null || sample.getCompletedAt() == null || sample.getStationId() == null) {
+            return;
+        }
+        double minutes = Duration.between(sample.getStartedAt(), sample.getCompletedAt()).toMillis() / 60_000.0;
+        if (minutes < 0) {
+            return;
+        }
+
+        byStation.computeIfAbsent(sample.getStationId(), id -> new PrepStats(alpha)).record(minutes);
+        if (sample.getMenuItemId() != null) {
+            byItem.computeIfAbsent(sample.getStationId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(sample.getMenuItemId(), id -> new PrepStats(alpha))
+                    .record(minutes);
+        }
+    }
+}
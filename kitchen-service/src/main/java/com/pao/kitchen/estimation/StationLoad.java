@@ -0,0 +1,24 @@
+package com.pao.kitchen.estimation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StationLoad {
+    private String stationId;
+    private int queuedTickets;
+    private int inProgressTickets;
+    // Estimated minutes of outstanding work, assuming one ticket at a time
+    private long backlogMinutes;
+    private LocalDateTime estimatedClearAt;
+    // Station-wide item prep times learned so far; null until the first sample
+    private Double itemPrepEwmaMinutes;
+    private Double itemPrepP90Minutes;
+}
@@ -1,14 +0,0 @@
-package com.pao.kitchen.events;
-
-import lombok.Builder;
-import lombok.Data;
-
-import java.math.BigDecimal;
-
-@Data
-@Builder
-public class ModificationDTO {
-    private String modificationId;
-    private String name;
-    private BigDecimal priceAdjustment;
-}
\ No newline at end of file
@@ -1,33 +1,54 @@
 package com.pao.kitchen.events.publisher;
 
-import com.pao.kitchen.events.ItemReadyEvent;
-import com.pao.kitchen.events.TicketCompletedEvent;
-import com.pao.kitchen.events.TicketCreatedEvent;
+import com.pao.events.ItemReadyEvent;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.events.TicketCompletedEvent;
+import com.pao.events.TicketCreatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KitchenEventPublisher {
 
+    public static final String RETRY_TOPIC = "kitchen-orders";
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
     public void publishTicketCreated(TicketCreatedEvent event) {
         log.info("Publishing TicketCreatedEvent for ticket: {}", event.getTicketId());
-        kafkaTemplate.send("kitchen-events", event.getTicketId(), event);
+        send("kitchen-events", event.getTicketId(), event);
     }
 
     public void publishItemReady(ItemReadyEvent event) {
         log.info("Publishing ItemReadyEvent for item: {}", event.getItemId());
-        kafkaTemplate.send("kitchen-events", event.getTicketId(), event);
+        send("kitchen-events", event.getTicketId(), event);
     }
 
     public void publishTicketCompleted(TicketCompletedEvent event) {
         log.info("Publishing TicketCompletedEvent for ticket: {}", event.getTicketId());
-        kafkaTemplate.send("kitchen-events", event.getTicketId(), event);
-        kafkaTemplate.send("order-events", event.getOrderId(), event);
+        send("kitchen-events", event.getTicketId(), event);
+        send("order-events", event.getOrderId(), event);
+    }
+
+    // Hands an order to the retry topics; callers wait on the result before acking the original
+    public CompletableFuture<SendResult<String, Object>> publishForRetry(OrderSubmittedEvent event) {
+        log.info("Publishing OrderSubmittedEvent for retry, order: {}", event.getOrderId());
+        return kafkaTemplate.send(RETRY_TOPIC, event.getOrderId(), event);
+    }
+
+    // Fire-and-forget on the caller's thread; delivery failures surface in the callback
+    private void send(String topic, String key, Object event) {
+        kafkaTemplate.send(topic, key, event).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.error("Failed to publish {} to {} for key {}", event.getClass().getSimpleName(), topic, key, ex);
+            }
+        });
     }
-}
\ No newline at end of file
+}
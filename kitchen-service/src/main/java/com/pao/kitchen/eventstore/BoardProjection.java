@@ -0,0 +1,56 @@
+package com.pao.kitchen.eventstore;
+
+import com.pao.kitchen.board.KdsBoard;
+import com.pao.kitchen.board.TicketItemReady;
+import com.pao.kitchen.board.TicketView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds ticket events into the set of active tickets. An event only applies
+ * if it is newer than what the entry already reflects, so replaying an
+ * overlapping tail on top of a snapshot is safe.
+ */
+class BoardProjection {
+
+    private final Map<String, ProjectedTicket> tickets = new HashMap<>();
+    private long lastSeq;
+
+    BoardProjection(long snapshotSeq, Collection<ProjectedTicket> snapshot) {
+        lastSeq = snapshotSeq;
+        snapshot.forEach(ticket -> tickets.put(ticket.view().getTicketId(), ticket));
+    }
+
+    void applyChange(long seq, TicketView view) {
+        lastSeq = Math.max(lastSeq, seq);
+        ProjectedTicket current = tickets.get(view.getTicketId());
+        if (current != null && current.seq() >= seq) {
+            return;
+        }
+        if (KdsBoard.ACTIVE.contains(view.getStatus())) {
+            tickets.put(view.getTicketId(), new ProjectedTicket(seq, view));
+        } else {
+            tickets.remove(view.getTicketId());
+        }
+    }
+
+    void applyItemReady(long seq, TicketItemReady event) {
+        lastSeq = Math.max(lastSeq, seq);
+        ProjectedTicket current = tickets.get(event.getTicketId());
+        if (current != null) {
+            applyChange(seq, current.view().withItemReady(event.getItemId(), event.isTicketCompleted()));
+        }
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    List<ProjectedTicket> tickets() {
+        return new ArrayList<>(tickets.values());
+    }
+}
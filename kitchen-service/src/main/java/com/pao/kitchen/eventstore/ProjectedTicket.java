@@ -0,0 +1,7 @@
+package com.pao.kitchen.eventstore;
+
+import com.pao.kitchen.board.TicketView;
+
+// A board entry with the seq of the last event folded into it
+public record ProjectedTicket(long seq, TicketView view) {
+}
@@ -0,0 +1,175 @@
+package com.pao.kitchen.eventstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pao.kitchen.board.TicketItemReady;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.domain.TicketEvent;
+import com.pao.kitchen.domain.TicketEventType;
+import com.pao.kitchen.domain.TicketSnapshot;
+import com.pao.kitchen.repository.KitchenTicketRepository;
+import com.pao.kitchen.repository.TicketEventRepository;
+import com.pao.kitchen.repository.TicketSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of ticket changes. Every {@link TicketView} and
+ * {@link TicketItemReady} published inside a transaction is appended to
+ * ticket_events before that transaction commits, so the log holds exactly the
+ * committed changes. The active board is periodically folded into a snapshot;
+ * a restart rebuilds it from the latest snapshot plus the events after it.
+ */
+@Component
+@Slf4j
+public class TicketEventStore {
+
+    private static final TypeReference<List<ProjectedTicket>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
+
+    private final TicketEventRepository eventRepository;
+    private final TicketSnapshotRepository snapshotRepository;
+    private final KitchenTicketRepository ticketRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long snapshotEvery;
+    private final Duration replayOverlap;
+
+    public TicketEventStore(TicketEventRepository eventRepository,
+                            TicketSnapshotRepository snapshotRepository,
+                            KitchenTicketRepository ticketRepository,
+                            ObjectMapper objectMapper,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${kitchen.event-store.snapshot-every:1000}") long snapshotEvery,
+                            @Value("${kitchen.event-store.replay-overlap-seconds:60}") long replayOverlapSeconds) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.ticketRepository = ticketRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotEvery = snapshotEvery;
+        this.replayOverlap = Duration.ofSeconds(replayOverlapSeconds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTicketChanged(TicketView ticket) {
+        append(TicketEventType.TICKET_CHANGED, ticket.getTicketId(), ticket);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onItemReady(TicketItemReady event) {
+        append(TicketEventType.ITEM_READY, event.getTicketId(), event);
+    }
+
+    /**
+     * Active tickets as of the last committed event. The first start after the
+     * log was introduced has no snapshot yet, so it seeds one from the ticket
+     * table; every later start reads only the snapshot and its tail.
+     */
+    public List<TicketView> rebuildActiveTickets() {
+        return transactionTemplate.execute(status -> {
+            TicketSnapshot snapshot = snapshotRepository.findTopByOrderBySeqDesc()
+                    .orElseGet(this::seedSnapshot);
+            BoardProjection projection = replay(snapshot);
+            log.info("Rebuilt board from snapshot at seq {} and events up to seq {}", snapshot.getSeq(), projection.lastSeq());
+            return projection.tickets().stream()
+                    .map(ProjectedTicket::view)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.event-store.snapshot-check-ms:10000}")
+    public void snapshotIfDue() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                TicketSnapshot latest = snapshotRepository.findTopByOrderBySeqDesc()
+                        .orElseGet(this::seedSnapshot);
+                if (eventRepository.countBySeqGreaterThan(latest.getSeq()) < snapshotEvery) {
+                    return;
+                }
+
+                BoardProjection projection = replay(latest);
+                TicketSnapshot next = snapshotRepository.save(toSnapshot(projection.lastSeq(), projection.tickets()));
+                // Keep the previous snapshot as a fallback
+                snapshotRepository.deleteBySeqLessThan(latest.getSeq());
+                log.info("Wrote board snapshot at seq {} ({} active tickets)", next.getSeq(), next.getTicketCount());
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Board snapshot already written by another instance");
+        }
+    }
+
+    private void append(TicketEventType type, String ticketId, Object payload) {
+        eventRepository.save(TicketEvent.builder()
+                .ticketId(ticketId)
+                .type(type)
+                .payload(write(payload))
+                .recordedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private BoardProjection replay(TicketSnapshot snapshot) {
+        BoardProjection projection = new BoardProjection(snapshot.getSeq(), read(snapshot.getPayload(), SNAPSHOT_TYPE));
+        for (TicketEvent event : eventRepository.findTail(snapshot.getSeq(), snapshot.getTakenAt().minus(replayOverlap))) {
+            switch (event.getType()) {
+                case TICKET_CHANGED -> projection.applyChange(event.getSeq(), read(event.getPayload(), TicketView.class));
+                case ITEM_READY -> projection.applyItemReady(event.getSeq(), read(event.getPayload(), TicketItemReady.class));
+            }
+        }
+        return projection;
+    }
+
+    // Entries carry seq 0, so every logged event replays over them
+    private TicketSnapshot seedSnapshot() {
+        List<ProjectedTicket> active = ticketRepository.findActiveTicketsOrdered().stream()
+                .map(ticket -> new ProjectedTicket(0, TicketView.from(ticket)))
+                .collect(Collectors.toList());
+        log.info("Seeding board snapshot from {} active tickets", active.size());
+        return snapshotRepository.save(toSnapshot(0, active));
+    }
+
+    private TicketSnapshot toSnapshot(long seq, List<ProjectedTicket> tickets) {
+        return TicketSnapshot.builder()
+                .seq(seq)
+                .takenAt(LocalDateTime.now())
+                .ticketCount(tickets.size())
+                .payload(write(tickets))
+                .build();
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize ticket event", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read ticket event", e);
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read board snapshot", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.pao.kitchen.listener;
 
-import com.pao.kitchen.events.OrderSubmittedEvent;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.kitchen.events.publisher.KitchenEventPublisher;
 import com.pao.kitchen.service.KitchenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,22 +9,44 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventListener {
 
     private final KitchenService kitchenService;
+    private final KitchenEventPublisher eventPublisher;
 
     @KafkaListener(topics = "kitchen-events", groupId = "kitchen-service")
-    public void handleOrderSubmitted(OrderSubmittedEvent event, Acknowledgment ack) {
+    public void handleOrdersSubmitted(List<OrderSubmittedEvent> events, Acknowledgment ack) {
+        if (events.isEmpty()) {
+            ack.acknowledge();
+            return;
+        }
+
+        log.info("Received {} OrderSubmittedEvents", events.size());
+        try {
+            kitchenService.createTicketsFromOrders(events);
+        } catch (Exception e) {
+            // Isolate the bad orders; they go to the retry topics so the partition keeps moving
+            log.error("Batch ticket creation failed, creating tickets one at a time", e);
+            CompletableFuture.allOf(events.stream()
+                    .map(this::handleOrderSubmitted)
+                    .toArray(CompletableFuture[]::new)).join();
+        }
+        ack.acknowledge();
+    }
+
+    private CompletableFuture<?> handleOrderSubmitted(OrderSubmittedEvent event) {
         try {
-            log.info("Received OrderSubmittedEvent for order: {}", event.getOrderId());
             kitchenService.createTicketFromOrder(event);
-            ack.acknowledge();
+            return CompletableFuture.completedFuture(null);
         } catch (Exception e) {
-            log.error("Error processing OrderSubmittedEvent", e);
-            // In production, implement retry logic or DLQ
+            log.warn("Ticket creation failed for order: {}, sending to retry topic", event.getOrderId(), e);
+            return eventPublisher.publishForRetry(event);
         }
     }
-}
\ No newline at end of file
+}
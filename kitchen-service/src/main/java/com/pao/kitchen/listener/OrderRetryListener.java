@@ -0,0 +1,52 @@
+package com.pao.kitchen.listener;
+
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.kitchen.events.publisher.KitchenEventPublisher;
+import com.pao.kitchen.service.KitchenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retries orders whose ticket could not be created, off the main partition.
+ * Each attempt waits in its own delay topic (kitchen-orders-retry-N) and an
+ * order that fails every attempt lands in kitchen-orders-dlt, from where
+ * {@link com.pao.kitchen.service.DeadLetterReplayService} can replay it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderRetryListener {
+
+    private final KitchenService kitchenService;
+
+    @RetryableTopic(
+            attempts = "${kitchen.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${kitchen.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${kitchen.retry.multiplier:2}",
+                    maxDelayExpression = "${kitchen.retry.max-delay-ms:30000}"),
+            retryTopicSuffix = "-retry",
+            dltTopicSuffix = "-dlt",
+            numPartitions = "3",
+            kafkaTemplate = "kafkaTemplate",
+            listenerContainerFactory = "retryListenerContainerFactory")
+    @KafkaListener(topics = KitchenEventPublisher.RETRY_TOPIC, groupId = "kitchen-service-retry",
+            containerFactory = "retryListenerContainerFactory")
+    public void retryOrderSubmitted(OrderSubmittedEvent event) {
+        log.info("Retrying ticket creation for order: {}", event.getOrderId());
+        kitchenService.createTicketFromOrder(event);
+    }
+
+    @DltHandler
+    public void handleDeadLetter(OrderSubmittedEvent event,
+                                 @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error) {
+        log.error("Giving up on ticket creation for order {}, parked in DLT: {}", event.getOrderId(), error);
+    }
+}
@@ -1,9 +1,16 @@
 package com.pao.kitchen.repository;
 
 import com.pao.kitchen.domain.*;
+import com.pao.kitchen.estimation.PrepSample;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface KitchenTicketRepository extends JpaRepository<KitchenTicket, String> {
     List<KitchenTicket> findByStatusIn(List<TicketStatus> statuses);
@@ -11,4 +18,70 @@ public interface KitchenTicketRepository extends JpaRepository<KitchenTicket, St
 
     @Query("SELECT t FROM KitchenTicket t WHERE t.status IN ('NEW', 'IN_PROGRESS') ORDER BY t.priority DESC, t.receivedAt ASC")
     List<KitchenTicket> findActiveTicketsOrdered();
+
+    @Query("SELECT new com.pao.kitchen.estimation.PrepSample(t.stationId, i.menuItemId, i.startedAt, i.completedAt) " +
+            "FROM TicketItem i JOIN i.ticket t " +
+            "WHERE i.completedAt >= :since AND i.startedAt IS NOT NULL ORDER BY i.completedAt")
+    List<PrepSample> findPrepSamplesSince(@Param("since") LocalDateTime since);
+
+    Optional<TicketProgress> findProgressById(String id);
+
+    @Query("SELECT DISTINCT t.orderId FROM KitchenTicket t WHERE t.orderId IN :orderIds")
+    Set<String> findOrderIdsWithTickets(@Param("orderIds") Collection<String> orderIds);
+
+    List<KitchenTicket> findByOrderIdAndCourseRankAndStatus(String orderId, Integer courseRank, TicketStatus status);
+
+    List<KitchenTicket> findByStatusAndFireAtIsNotNull(TicketStatus status);
+
+    boolean existsByOrderIdAndCourseRankLessThanAndStatusIn(String orderId, Integer courseRank,
+                                                            Collection<TicketStatus> statuses);
+
+    @Query("SELECT MIN(t.courseRank) FROM KitchenTicket t " +
+            "WHERE t.orderId = :orderId AND t.status = com.pao.kitchen.domain.TicketStatus.HELD")
+    Integer findNextHeldCourse(@Param("orderId") String orderId);
+
+    @Query("SELECT MIN(t.courseRank) FROM KitchenTicket t " +
+            "WHERE t.orderId = :orderId AND t.status = com.pao.kitchen.domain.TicketStatus.HELD AND t.fireAt IS NULL")
+    Integer findNextUnscheduledCourse(@Param("orderId") String orderId);
+
+    // Orders whose next held course was never armed although every earlier course is closed
+    @Query("SELECT DISTINCT t.orderId FROM KitchenTicket t " +
+            "WHERE t.status = com.pao.kitchen.domain.TicketStatus.HELD AND t.fireAt IS NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM KitchenTicket e WHERE e.orderId = t.orderId " +
+            "AND e.courseRank < t.courseRank AND e.status IN :open)")
+    List<String> findOrdersWithUnarmedCourses(@Param("open") Collection<TicketStatus> open);
+
+    @Query("SELECT MAX(t.completedAt) FROM KitchenTicket t WHERE t.orderId = :orderId AND t.courseRank < :courseRank")
+    LocalDateTime findLastCompletionBefore(@Param("orderId") String orderId, @Param("courseRank") Integer courseRank);
+
+    // Guarded on fireAt so concurrent course completions arm the next course once
+    @Modifying
+    @Query("UPDATE KitchenTicket t SET t.fireAt = :fireAt, t.version = t.version + 1 " +
+            "WHERE t.orderId = :orderId AND t.courseRank = :courseRank " +
+            "AND t.status = com.pao.kitchen.domain.TicketStatus.HELD AND t.fireAt IS NULL")
+    int scheduleFire(@Param("orderId") String orderId, @Param("courseRank") Integer courseRank,
+                     @Param("fireAt") LocalDateTime fireAt);
+
+    // Takes the ticket row lock, so concurrent bumps on one ticket count exactly
+    @Query(value = "UPDATE kitchen_tickets SET ready_count = ready_count + 1, version = version + 1 WHERE id = :ticketId " +
+            PROGRESS_COLUMNS, nativeQuery = true)
+    Optional<TicketProgress> incrementReadyCount(@Param("ticketId") String ticketId);
+
+    // Tickets created before the counters existed; run while holding the row lock
+    @Query(value = "UPDATE kitchen_tickets SET " +
+            "item_count = (SELECT count(*) FROM ticket_items WHERE ticket_id = :ticketId), " +
+            "ready_count = (SELECT count(*) FROM ticket_items WHERE ticket_id = :ticketId AND status = 'READY'), " +
+            "version = version + 1 " +
+            "WHERE id = :ticketId " + PROGRESS_COLUMNS, nativeQuery = true)
+    Optional<TicketProgress> recountReadyItems(@Param("ticketId") String ticketId);
+
+    // Guarded so exactly one bump completes the ticket
+    @Modifying
+    @Query("UPDATE KitchenTicket t SET t.status = com.pao.kitchen.domain.TicketStatus.READY, t.completedAt = :completedAt, " +
+            "t.version = t.version + 1 " +
+            "WHERE t.id = :ticketId AND t.status <> com.pao.kitchen.domain.TicketStatus.READY")
+    int markReady(@Param("ticketId") String ticketId, @Param("completedAt") LocalDateTime completedAt);
+
+    String PROGRESS_COLUMNS = "RETURNING order_id AS \"orderId\", table_id AS \"tableId\", " +
+            "station_id AS \"stationId\", status AS \"status\", ready_count AS \"readyCount\", item_count AS \"itemCount\"";
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.pao.kitchen.repository;
+
+import java.time.LocalDateTime;
+
+// Row returned by the targeted item-ready update
+public interface ReadyItem {
+    String getOrderItemId();
+    String getMenuItemId();
+    String getItemName();
+    LocalDateTime getStartedAt();
+}
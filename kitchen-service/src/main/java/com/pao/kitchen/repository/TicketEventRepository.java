@@ -0,0 +1,17 @@
+package com.pao.kitchen.repository;
+
+import com.pao.kitchen.domain.TicketEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TicketEventRepository extends JpaRepository<TicketEvent, Long> {
+
+    long countBySeqGreaterThan(Long seq);
+
+    // Events after a snapshot, plus any recorded shortly before it that may have committed after it was taken
+    @Query("SELECT e FROM TicketEvent e WHERE e.seq > :seq OR e.recordedAt >= :recordedSince ORDER BY e.seq")
+    List<TicketEvent> findTail(@Param("seq") Long seq, @Param("recordedSince") LocalDateTime recordedSince);
+}
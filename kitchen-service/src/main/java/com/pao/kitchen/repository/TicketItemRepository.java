@@ -0,0 +1,26 @@
+package com.pao.kitchen.repository;
+
+import com.pao.kitchen.domain.TicketItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface TicketItemRepository extends JpaRepository<TicketItem, String> {
+
+    // Single-row bump; empty when the item is unknown or already READY
+    @Query(value = "UPDATE ticket_items SET status = 'READY', completed_at = :completedAt " +
+            "WHERE id = :itemId AND ticket_id = :ticketId AND status <> 'READY' " +
+            "RETURNING order_item_id AS \"orderItemId\", menu_item_id AS \"menuItemId\", " +
+            "item_name AS \"itemName\", started_at AS \"startedAt\"", nativeQuery = true)
+    Optional<ReadyItem> markReady(@Param("ticketId") String ticketId,
+                                  @Param("itemId") String itemId,
+                                  @Param("completedAt") LocalDateTime completedAt);
+
+    boolean existsByIdAndTicketId(String id, String ticketId);
+
+    @Query("SELECT i.orderItemId FROM TicketItem i WHERE i.ticket.id = :ticketId")
+    List<String> findOrderItemIds(@Param("ticketId") String ticketId);
+}
@@ -0,0 +1,13 @@
+package com.pao.kitchen.repository;
+
+import com.pao.kitchen.domain.TicketStatus;
+
+// Ready progress of a ticket; rows returned by the counter updates stay locked until commit
+public interface TicketProgress {
+    String getOrderId();
+    String getTableId();
+    String getStationId();
+    TicketStatus getStatus();
+    Integer getReadyCount();
+    Integer getItemCount();
+}
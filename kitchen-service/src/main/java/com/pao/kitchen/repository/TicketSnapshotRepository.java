@@ -0,0 +1,14 @@
+package com.pao.kitchen.repository;
+
+import com.pao.kitchen.domain.TicketSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import java.util.Optional;
+
+public interface TicketSnapshotRepository extends JpaRepository<TicketSnapshot, Long> {
+
+    Optional<TicketSnapshot> findTopByOrderBySeqDesc();
+
+    @Modifying
+    void deleteBySeqLessThan(Long seq);
+}
@@ -0,0 +1,90 @@
+package com.pao.kitchen.routing;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over lower-cased keywords, compiled to a dense
+ * transition table. Matching walks the text once without allocating, so it
+ * is safe to call per item on the listener thread.
+ */
+final class KeywordMatcher {
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    // Sorted distinct keyword chars; a text char outside it resets to the root
+    private final char[] alphabet;
+    private final int[][] transitions;
+    // Lowest index of a keyword ending in each state, or NO_MATCH
+    private final int[] output;
+
+    KeywordMatcher(List<String> keywords) {
+        SortedSet<Character> chars = new TreeSet<>();
+        keywords.forEach(k -> k.toLowerCase(Locale.ROOT).chars().forEach(c -> chars.add((char) c)));
+        alphabet = new char[chars.size()];
+        int n = 0;
+        for (char c : chars) {
+            alphabet[n++] = c;
+        }
+
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> out = new ArrayList<>();
+        trie.add(new int[alphabet.length]);
+        out.add(NO_MATCH);
+
+        for (int index = 0; index < keywords.size(); index++) {
+            int state = 0;
+            for (char c : keywords.get(index).toLowerCase(Locale.ROOT).toCharArray()) {
+                int symbol = Arrays.binarySearch(alphabet, c);
+                if (trie.get(state)[symbol] == 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(new int[alphabet.length]);
+                    out.add(NO_MATCH);
+                }
+                state = trie.get(state)[symbol];
+            }
+            if (state != 0) {
+                out.set(state, Math.min(out.get(state), index));
+            }
+        }
+
+        // Breadth-first: complete the goto function with failure links and inherit suffix matches
+        int[] fail = new int[trie.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabet.length; symbol++) {
+            if (trie.get(0)[symbol] != 0) {
+                queue.add(trie.get(0)[symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            out.set(state, Math.min(out.get(state), out.get(fail[state])));
+            for (int symbol = 0; symbol < alphabet.length; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next != 0) {
+                    fail[next] = trie.get(fail[state])[symbol];
+                    queue.add(next);
+                } else {
+                    trie.get(state)[symbol] = trie.get(fail[state])[symbol];
+                }
+            }
+        }
+
+        transitions = trie.toArray(new int[0][]);
+        output = out.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the index of the earliest-listed keyword found anywhere in the
+     * text, or {@code -1} when none matches.
+     */
+    int match(CharSequence text) {
+        int state = 0;
+        int best = NO_MATCH;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = Arrays.binarySearch(alphabet, Character.toLowerCase(text.charAt(i)));
+            state = symbol >= 0 ? transitions[state][symbol] : 0;
+            best = Math.min(best, output[state]);
+        }
+        return best == NO_MATCH ? -1 : best;
+    }
+}
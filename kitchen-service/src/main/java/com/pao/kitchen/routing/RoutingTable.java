@@ -0,0 +1,56 @@
+package com.pao.kitchen.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable routing rules compiled from a {@link StationRoutingConfig}.
+ * Lookups are hash probes plus one keyword automaton pass and never allocate.
+ */
+final class RoutingTable {
+
+    private final String defaultStation;
+    private final Map<String, String> byMenuItem;
+    private final Map<String, String> byCourse;
+    private final KeywordMatcher keywordMatcher;
+    private final String[] keywordStations;
+
+    RoutingTable(StationRoutingConfig config) {
+        if (config.getDefaultStation() == null || config.getDefaultStation().isBlank()) {
+            throw new IllegalArgumentException("Station routing needs a defaultStation");
+        }
+        defaultStation = config.getDefaultStation();
+        byMenuItem = new HashMap<>(config.getMenuItems());
+        byCourse = new HashMap<>(config.getCourses());
+
+        List<String> keywords = new ArrayList<>(config.getKeywords().size());
+        List<String> stations = new ArrayList<>(config.getKeywords().size());
+        config.getKeywords().forEach((keyword, station) -> {
+            if (!keyword.isEmpty()) {
+                keywords.add(keyword);
+                stations.add(station);
+            }
+        });
+        keywordMatcher = new KeywordMatcher(keywords);
+        keywordStations = stations.toArray(new String[0]);
+    }
+
+    String route(String menuItemId, String name, String courseType) {
+        String station = menuItemId != null ? byMenuItem.get(menuItemId) : null;
+        if (station != null) {
+            return station;
+        }
+        int keyword = name != null ? keywordMatcher.match(name) : -1;
+        if (keyword >= 0) {
+            return keywordStations[keyword];
+        }
+        station = courseType != null ? byCourse.get(courseType) : null;
+        return station != null ? station : defaultStation;
+    }
+
+    int size() {
+        return byMenuItem.size() + byCourse.size() + keywordStations.length;
+    }
+}
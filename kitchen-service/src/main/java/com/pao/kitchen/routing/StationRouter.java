@@ -0,0 +1,85 @@
+package com.pao.kitchen.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pao.events.OrderItemDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Picks the kitchen station for each order item from the routing file
+ * ({@code kitchen.routing.file}). The file is re-read when its modification
+ * time changes; a file that fails to parse is logged and the previous table
+ * stays in use. Without the file the bundled {@code station-routes.yml} applies.
+ */
+@Component
+@Slf4j
+public class StationRouter {
+
+    private static final String BUNDLED_ROUTES = "station-routes.yml";
+
+    private final Path routesFile;
+    private final ObjectMapper objectMapper;
+    private volatile RoutingTable table;
+    private FileTime loadedModifiedTime;
+    // Not synchronized: the reload reads a file and may run on a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public StationRouter(@Value("${kitchen.routing.file:station-routes.yml}") String routesFile,
+                         ObjectMapper objectMapper) throws IOException {
+        this.routesFile = Path.of(routesFile);
+        this.objectMapper = objectMapper;
+        if (Files.exists(this.routesFile)) {
+            reloadIfChanged();
+        }
+        if (table == null) {
+            try (InputStream in = new ClassPathResource(BUNDLED_ROUTES).getInputStream()) {
+                table = compile(in);
+            }
+            log.info("Loaded bundled station routes ({} rules)", table.size());
+        }
+    }
+
+    public String route(OrderItemDTO item) {
+        return table.route(item.getMenuItemId(), item.getName(), item.getCourseType());
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.routing.reload-interval-ms:5000}")
+    public void reloadIfChanged() {
+        reloadLock.lock();
+        try {
+            if (!Files.exists(routesFile)) {
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(routesFile);
+            if (modified.equals(loadedModifiedTime)) {
+                return;
+            }
+            // Remember the attempt so a broken file is reported once, not every interval
+            loadedModifiedTime = modified;
+            try (InputStream in = Files.newInputStream(routesFile)) {
+                table = compile(in);
+            }
+            log.info("Loaded station routes from {} ({} rules)", routesFile, table.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load station routes from {}, keeping the current rules", routesFile, e);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private RoutingTable compile(InputStream in) {
+        Object yaml = new Yaml().load(in);
+        return new RoutingTable(objectMapper.convertValue(yaml, StationRoutingConfig.class));
+    }
+}
@@ -0,0 +1,23 @@
+package com.pao.kitchen.routing;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Contents of the station routing file. Rules are tried in this order:
+ * exact menu item, name keyword, course, then the default station.
+ */
+@Data
+@NoArgsConstructor
+public class StationRoutingConfig {
+    private String defaultStation;
+    // menuItemId -> station
+    private Map<String, String> menuItems = new LinkedHashMap<>();
+    // Case-insensitive substring of the item name -> station; earlier keywords win ties
+    private Map<String, String> keywords = new LinkedHashMap<>();
+    // courseType -> station
+    private Map<String, String> courses = new LinkedHashMap<>();
+}
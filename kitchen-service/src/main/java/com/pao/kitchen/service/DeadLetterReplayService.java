@@ -0,0 +1,111 @@
+package com.pao.kitchen.service;
+
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.kitchen.events.publisher.KitchenEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Replays parked orders from the kitchen DLT back into the retry topics.
+ * Progress is tracked with the offsets of a dedicated consumer group, so
+ * each dead letter is replayed once however many times replay is called.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterReplayService {
+
+    public static final String DLT_TOPIC = KitchenEventPublisher.RETRY_TOPIC + "-dlt";
+    private static final String REPLAY_GROUP = "kitchen-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final KitchenEventPublisher eventPublisher;
+
+    public long countPending() {
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer(REPLAY_GROUP, "count")) {
+            List<TopicPartition> partitions = assignDlt(consumer);
+            if (partitions.isEmpty()) {
+                return 0;
+            }
+
+            Map<TopicPartition, Long> start = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+
+            long pending = 0;
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                long position = Math.max(start.get(partition), offset != null ? offset.offset() : 0);
+                pending += end.get(partition) - position;
+            }
+            return pending;
+        }
+    }
+
+    public int replay(int limit) {
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer(REPLAY_GROUP, "replay")) {
+            if (assignDlt(consumer).isEmpty()) {
+                return 0;
+            }
+
+            Map<TopicPartition, OffsetAndMetadata> replayed = new HashMap<>();
+            int count = 0;
+            try {
+                while (count < limit) {
+                    ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+                    if (records.isEmpty()) {
+                        break;
+                    }
+                    for (ConsumerRecord<String, Object> record : records) {
+                        if (count == limit) {
+                            break;
+                        }
+                        if (record.value() instanceof OrderSubmittedEvent event) {
+                            eventPublisher.publishForRetry(event).join();
+                            count++;
+                        }
+                        replayed.put(new TopicPartition(record.topic(), record.partition()),
+                                new OffsetAndMetadata(record.offset() + 1));
+                    }
+                }
+            } finally {
+                // Commit what was republished even if a send failed part-way
+                if (!replayed.isEmpty()) {
+                    consumer.commitSync(replayed);
+                }
+            }
+
+            log.info("Replayed {} orders from {}", count, DLT_TOPIC);
+            return count;
+        }
+    }
+
+    private List<TopicPartition> assignDlt(Consumer<String, Object> consumer) {
+        List<PartitionInfo> infos = consumer.partitionsFor(DLT_TOPIC);
+        if (infos == null || infos.isEmpty()) {
+            return List.of();
+        }
+
+        List<TopicPartition> partitions = infos.stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .collect(Collectors.toList());
+        consumer.assign(partitions);
+        return partitions;
+    }
+}
@@ -0,0 +1,16 @@
+package com.pao.kitchen.service;
+
+import com.pao.kitchen.domain.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemReadyResult {
+    private String ticketId;
+    private String itemId;
+    private int readyCount;
+    private int itemCount;
+    // READY once this bump or an earlier one completed the ticket
+    private TicketStatus ticketStatus;
+}
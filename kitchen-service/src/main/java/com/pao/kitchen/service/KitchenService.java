@@ -1,11 +1,23 @@
 package com.pao.kitchen.service;
 
+import com.pao.kitchen.board.TicketItemReady;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.course.CourseProperties;
+import com.pao.kitchen.dispatch.QueuedTicket;
+import com.pao.kitchen.dispatch.TicketDispatcher;
 import com.pao.kitchen.domain.*;
-import com.pao.kitchen.events.*;
+import com.pao.events.*;
 import com.pao.kitchen.events.publisher.KitchenEventPublisher;
+import com.pao.kitchen.estimation.PrepSample;
+import com.pao.kitchen.estimation.PrepTimeEstimator;
 import com.pao.kitchen.repository.KitchenTicketRepository;
+import com.pao.kitchen.repository.ReadyItem;
+import com.pao.kitchen.repository.TicketItemRepository;
+import com.pao.kitchen.repository.TicketProgress;
+import com.pao.kitchen.routing.StationRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -18,34 +30,102 @@ import java.util.stream.Collectors;
 public class KitchenService {
 
     private final KitchenTicketRepository ticketRepository;
+    private final TicketItemRepository ticketItemRepository;
     private final KitchenEventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TicketDispatcher dispatcher;
+    private final StationRouter stationRouter;
+    private final PrepTimeEstimator prepTimeEstimator;
+    private final OptimisticRetry optimisticRetry;
+    private final CourseProperties courseProperties;
 
     @Transactional
-    public KitchenTicket createTicketFromOrder(OrderSubmittedEvent event) {
-        String ticketId = UUID.randomUUID().toString();
-        String stationId = determineStation(event.getItems());
+    public List<KitchenTicket> createTicketFromOrder(OrderSubmittedEvent event) {
+        return createTicketsFromOrders(List.of(event));
+    }
+
+    /**
+     * Creates the tickets for a whole poll of submitted orders in one transaction.
+     * Ticket ids are generated on persist, so the inserts go out as JDBC batches.
+     * Idempotent per order: orders that already have tickets, e.g. redelivered
+     * after a partial failure or replayed from the DLT, are skipped, and the
+     * unique key on (order_id, station_id, course_rank) rejects a concurrent
+     * duplicate.
+     */
+    @Transactional
+    public List<KitchenTicket> createTicketsFromOrders(List<OrderSubmittedEvent> events) {
+        Map<String, OrderSubmittedEvent> byOrder = new LinkedHashMap<>();
+        events.forEach(event -> byOrder.putIfAbsent(event.getOrderId(), event));
+        Set<String> existing = ticketRepository.findOrderIdsWithTickets(byOrder.keySet());
+        if (!existing.isEmpty()) {
+            log.info("Skipping {} orders that already have tickets", existing.size());
+            byOrder.keySet().removeAll(existing);
+        }
+
+        List<KitchenTicket> tickets = byOrder.values().stream()
+                .flatMap(event -> buildTickets(event).stream())
+                .collect(Collectors.toList());
+
+        tickets = ticketRepository.saveAll(tickets);
+        ticketRepository.flush();
+        tickets.forEach(this::publishBoardChange);
+
+        tickets.forEach(ticket -> eventPublisher.publishTicketCreated(TicketCreatedEvent.newBuilder()
+                .setTicketId(ticket.getId())
+                .setOrderId(ticket.getOrderId())
+                .setTableId(ticket.getTableId())
+                .setStationId(ticket.getStationId())
+                .setTimestamp(LocalDateTime.now())
+                .build()));
+
+        return tickets;
+    }
+
+    /**
+     * One sub-ticket per course and station. The order's first course goes
+     * straight to the stations; later courses are HELD until CourseScheduler
+     * fires them.
+     */
+    private List<KitchenTicket> buildTickets(OrderSubmittedEvent event) {
+        SortedMap<Integer, Map<String, List<OrderItemDTO>>> itemsByCourse = new TreeMap<>();
+        for (OrderItemDTO item : event.getItems()) {
+            itemsByCourse.computeIfAbsent(courseProperties.rankOf(item.getCourseType()), rank -> new LinkedHashMap<>())
+                    .computeIfAbsent(stationRouter.route(item), station -> new ArrayList<>())
+                    .add(item);
+        }
+
+        List<KitchenTicket> tickets = new ArrayList<>();
+        itemsByCourse.forEach((rank, itemsByStation) -> {
+            TicketStatus status = rank.equals(itemsByCourse.firstKey()) ? TicketStatus.NEW : TicketStatus.HELD;
+            itemsByStation.forEach((stationId, items) -> tickets.add(buildTicket(event, stationId, rank, status, items)));
+        });
+        return tickets;
+    }
 
+    private KitchenTicket buildTicket(OrderSubmittedEvent event, String stationId, int courseRank,
+                                      TicketStatus status, List<OrderItemDTO> items) {
         KitchenTicket ticket = KitchenTicket.builder()
-                .id(ticketId)
                 .orderId(event.getOrderId())
                 .tableId(event.getTableId())
-                .status(TicketStatus.NEW)
+                .status(status)
                 .priority(TicketPriority.NORMAL)
                 .stationId(stationId)
+                .courseRank(courseRank)
                 .receivedAt(LocalDateTime.now())
-                .estimatedMinutes(calculateEstimatedTime(event.getItems()))
+                .estimatedMinutes(prepTimeEstimator.estimateMinutes(stationId, items))
+                .itemCount(items.size())
+                .readyCount(0)
+                .items(new ArrayList<>())
                 .build();
 
-        // Create a final reference for use in lambda
-        final KitchenTicket finalTicket = ticket;
-
-        event.getItems().forEach(item -> {
+        items.forEach(item -> {
             List<String> mods = item.getModifications().stream()
                     .map(ModificationDTO::getName)
                     .collect(Collectors.toList());
 
             TicketItem ticketItem = TicketItem.builder()
                     .orderItemId(item.getItemId())
+                    .menuItemId(item.getMenuItemId())
                     .itemName(item.getName())
                     .quantity(item.getQuantity())
                     .modifications(mods)
@@ -53,96 +133,169 @@ public class KitchenService {
                     .courseType(item.getCourseType())
                     .build();
 
-            finalTicket.addItem(ticketItem);
+            ticket.addItem(ticketItem);
         });
 
-        ticket = ticketRepository.save(ticket);
-
-        eventPublisher.publishTicketCreated(TicketCreatedEvent.builder()
-                .ticketId(ticketId)
-                .orderId(event.getOrderId())
-                .tableId(event.getTableId())
-                .stationId(stationId)
-                .timestamp(LocalDateTime.now())
-                .build());
-
         return ticket;
     }
 
-    @Transactional
+    // Only NEW tickets move to IN_PROGRESS, so a retried or duplicate start changes nothing
     public KitchenTicket startTicket(String ticketId) {
-        KitchenTicket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        return optimisticRetry.execute(ticketId, () -> {
+            KitchenTicket ticket = ticketRepository.findById(ticketId)
+                    .orElseThrow(() -> new RuntimeException("Ticket not found"));
+            return startIfNew(ticket).orElse(ticket);
+        });
+    }
+
+    /**
+     * Pulls the station's next ticket from the dispatch queue and starts it.
+     * The queue is updated after commit, so a polled entry can be stale (the
+     * ticket was started directly or changed meanwhile); such entries are
+     * dropped and the next one is polled, so the caller never gets a ticket
+     * it did not start.
+     */
+    public Optional<KitchenTicket> startNextTicket(String stationId) {
+        Optional<QueuedTicket> next;
+        while ((next = dispatcher.pollNext(stationId)).isPresent()) {
+            QueuedTicket queued = next.get();
+            Optional<KitchenTicket> started;
+            try {
+                started = optimisticRetry.execute(queued.ticketId(),
+                        () -> ticketRepository.findById(queued.ticketId()).flatMap(this::startIfNew));
+            } catch (RuntimeException e) {
+                dispatcher.requeue(queued);
+                throw e;
+            }
+            if (started.isPresent()) {
+                return started;
+            }
+            log.debug("Skipping stale dispatch entry for ticket {}", queued.ticketId());
+        }
+        return Optional.empty();
+    }
+
+    private Optional<KitchenTicket> startIfNew(KitchenTicket ticket) {
+        if (ticket.getStatus() != TicketStatus.NEW) {
+            return Optional.empty();
+        }
 
         ticket.setStatus(TicketStatus.IN_PROGRESS);
         ticket.setStartedAt(LocalDateTime.now());
 
-        ticket.getItems().forEach(item -> {
-            item.setStatus(ItemStatus.PREPARING);
-            item.setStartedAt(LocalDateTime.now());
-        });
+        // Items already bumped stay READY so the ready counter stays true
+        ticket.getItems().stream()
+                .filter(item -> item.getStatus() == ItemStatus.PENDING)
+                .forEach(item -> {
+                    item.setStatus(ItemStatus.PREPARING);
+                    item.setStartedAt(LocalDateTime.now());
+                });
 
-        return ticketRepository.save(ticket);
+        KitchenTicket started = ticketRepository.save(ticket);
+        publishBoardChange(started);
+        return Optional.of(started);
     }
 
-    @Transactional
-    public KitchenTicket markItemReady(String ticketId, String itemId) {
-        KitchenTicket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+    // Releases a held course to its stations; a no-op for tickets already fired
+    public List<TicketView> fireCourse(String orderId, int courseRank) {
+        return optimisticRetry.execute(orderId, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<KitchenTicket> held = ticketRepository.findByOrderIdAndCourseRankAndStatus(
+                    orderId, courseRank, TicketStatus.HELD);
+            held.forEach(ticket -> {
+                ticket.setStatus(TicketStatus.NEW);
+                ticket.setReceivedAt(now);
+                ticket.setFireAt(now);
+            });
 
-        TicketItem item = ticket.getItems().stream()
-                .filter(i -> i.getId().equals(itemId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+            List<KitchenTicket> fired = ticketRepository.saveAll(held);
+            fired.forEach(this::publishBoardChange);
+            log.info("Fired course {} of order {} ({} tickets)", courseRank, orderId, fired.size());
+            return fired.stream().map(TicketView::from).collect(Collectors.toList());
+        });
+    }
 
-        item.setStatus(ItemStatus.READY);
-        item.setCompletedAt(LocalDateTime.now());
+    public KitchenTicket rushTicket(String ticketId) {
+        return optimisticRetry.execute(ticketId, () -> {
+            KitchenTicket ticket = ticketRepository.findById(ticketId)
+                    .orElseThrow(() -> new RuntimeException("Ticket not found"));
 
-        eventPublisher.publishItemReady(ItemReadyEvent.builder()
-                .ticketId(ticketId)
-                .orderId(ticket.getOrderId())
-                .itemId(itemId)
-                .itemName(item.getItemName())
-                .timestamp(LocalDateTime.now())
-                .build());
+            ticket.setPriority(TicketPriority.RUSH);
 
-        boolean allReady = ticket.getItems().stream()
-                .allMatch(i -> i.getStatus() == ItemStatus.READY);
+            ticket = ticketRepository.save(ticket);
+            publishBoardChange(ticket);
+            return ticket;
+        });
+    }
 
-        if (allReady) {
-            ticket.setStatus(TicketStatus.READY);
-            ticket.setCompletedAt(LocalDateTime.now());
+    /**
+     * Bumps one item without loading the ticket: a conditional single-row
+     * update, then a counter increment on the ticket row. The increment takes
+     * the row lock, so concurrent bumps are counted exactly and only the one
+     * that reaches itemCount completes the ticket. Every counter update bumps
+     * the version, so a concurrent entity save retries instead of overwriting.
+     * Re-bumping a READY item is a no-op.
+     */
+    @Transactional
+    public ItemReadyResult markItemReady(String ticketId, String itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<ReadyItem> bumped = ticketItemRepository.markReady(ticketId, itemId, now);
+        if (bumped.isEmpty()) {
+            if (!ticketItemRepository.existsByIdAndTicketId(itemId, ticketId)) {
+                throw new RuntimeException("Item not found");
+            }
+            TicketProgress progress = ticketRepository.findProgressById(ticketId)
+                    .orElseThrow(() -> new RuntimeException("Ticket not found"));
+            return toResult(ticketId, itemId, progress, progress.getStatus());
+        }
+        ReadyItem item = bumped.get();
 
-            List<String> itemIds = ticket.getItems().stream()
-                    .map(TicketItem::getOrderItemId)
-                    .collect(Collectors.toList());
+        TicketProgress progress = ticketRepository.incrementReadyCount(ticketId)
+                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        if (progress.getReadyCount() == null || progress.getItemCount() == null) {
+            progress = ticketRepository.recountReadyItems(ticketId).orElseThrow();
+        }
+
+        applicationEventPublisher.publishEvent(new PrepSample(
+                progress.getStationId(), item.getMenuItemId(), item.getStartedAt(), now));
 
-            eventPublisher.publishTicketCompleted(TicketCompletedEvent.builder()
-                    .ticketId(ticketId)
-                    .orderId(ticket.getOrderId())
-                    .tableId(ticket.getTableId())
-                    .itemIds(itemIds)
-                    .timestamp(LocalDateTime.now())
+        eventPublisher.publishItemReady(ItemReadyEvent.newBuilder()
+                .setTicketId(ticketId)
+                .setOrderId(progress.getOrderId())
+                .setItemId(itemId)
+                .setItemName(item.getItemName())
+                .setTimestamp(now)
+                .build());
+
+        boolean completed = progress.getReadyCount() >= progress.getItemCount()
+                && ticketRepository.markReady(ticketId, now) == 1;
+        if (completed) {
+            eventPublisher.publishTicketCompleted(TicketCompletedEvent.newBuilder()
+                    .setTicketId(ticketId)
+                    .setOrderId(progress.getOrderId())
+                    .setTableId(progress.getTableId())
+                    .setItemIds(ticketItemRepository.findOrderItemIds(ticketId))
+                    .setTimestamp(now)
                     .build());
         }
 
-        return ticketRepository.save(ticket);
+        applicationEventPublisher.publishEvent(new TicketItemReady(ticketId, progress.getOrderId(), progress.getStationId(), itemId, completed));
+        return toResult(ticketId, itemId, progress, completed ? TicketStatus.READY : progress.getStatus());
     }
 
     public List<KitchenTicket> getActiveTickets() {
         return ticketRepository.findActiveTicketsOrdered();
     }
 
-    private String determineStation(List<OrderItemDTO> items) {
-        // Simple logic - in reality, this would query menu service
-        boolean hasGrill = items.stream()
-                .anyMatch(i -> i.getName().toLowerCase().contains("steak") ||
-                        i.getName().toLowerCase().contains("burger"));
-
-        return hasGrill ? "GRILL_STATION" : "HOT_STATION";
+    private ItemReadyResult toResult(String ticketId, String itemId, TicketProgress progress, TicketStatus status) {
+        return new ItemReadyResult(ticketId, itemId,
+                progress.getReadyCount() != null ? progress.getReadyCount() : 0,
+                progress.getItemCount() != null ? progress.getItemCount() : 0,
+                status);
     }
 
-    private Integer calculateEstimatedTime(List<OrderItemDTO> items) {
-        return items.size() * 5 + 10; // Simple calculation
+    // Applied to the KDS board once the surrounding transaction commits
+    private void publishBoardChange(KitchenTicket ticket) {
+        applicationEventPublisher.publishEvent(TicketView.from(ticket));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.pao.kitchen.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a ticket mutation in its own transaction and re-runs it from a fresh
+ * read when the version check fails at commit, up to a bounded number of
+ * attempts. Callers must not already be in a transaction, or the retry
+ * would join a transaction that is already doomed.
+ */
+@Component
+@Slf4j
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public OptimisticRetry(TransactionTemplate transactionTemplate,
+                           @Value("${kitchen.ticket.max-attempts:5}") int maxAttempts) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public <T> T execute(String ticketId, Supplier<T> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> mutation.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Ticket {} changed concurrently, retrying (attempt {})", ticketId, attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Jittered so the losing writers don't collide again in lockstep
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying ticket update", e);
+        }
+    }
+}
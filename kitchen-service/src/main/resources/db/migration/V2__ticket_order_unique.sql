@@ -0,0 +1,16 @@
+-- Ticket creation is idempotent per order; the key rejects a second set of tickets
+-- for an order that was delivered twice. Duplicates created before it must be
+-- resolved by hand, since either copy may already be in progress.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM kitchen_tickets
+               GROUP BY order_id, station_id HAVING count(*) > 1) THEN
+        RAISE EXCEPTION 'kitchen_tickets has duplicate tickets per (order_id, station_id); remove them before migrating';
+    END IF;
+END $$;
+
+ALTER TABLE kitchen_tickets DROP CONSTRAINT IF EXISTS uk_tickets_order_station;
+ALTER TABLE kitchen_tickets ADD CONSTRAINT uk_tickets_order_station UNIQUE (order_id, station_id);
+
+-- Covered by the key's index
+DROP INDEX IF EXISTS idx_tickets_order_id;
@@ -0,0 +1,3 @@
+-- Prep times are learned per menu item; the warm-up replays recently completed items
+ALTER TABLE ticket_items ADD COLUMN IF NOT EXISTS menu_item_id VARCHAR(255);
+CREATE INDEX IF NOT EXISTS idx_ticket_items_completed_at ON ticket_items(completed_at) WHERE completed_at IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Bumps count ready items on the ticket row; tickets created before are recounted on their first bump
+ALTER TABLE kitchen_tickets ADD COLUMN IF NOT EXISTS item_count INTEGER;
+ALTER TABLE kitchen_tickets ADD COLUMN IF NOT EXISTS ready_count INTEGER;
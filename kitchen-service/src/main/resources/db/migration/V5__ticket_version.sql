@@ -0,0 +1,2 @@
+-- Optimistic locking; existing tickets start at version 0
+ALTER TABLE kitchen_tickets ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
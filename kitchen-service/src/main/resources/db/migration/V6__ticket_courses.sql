@@ -0,0 +1,17 @@
+-- Tickets are split per course; later courses are HELD until they fire at fire_at
+ALTER TABLE kitchen_tickets ADD COLUMN IF NOT EXISTS course_rank INTEGER;
+ALTER TABLE kitchen_tickets ADD COLUMN IF NOT EXISTS fire_at TIMESTAMP;
+CREATE INDEX IF NOT EXISTS idx_tickets_order_course ON kitchen_tickets(order_id, course_rank);
+
+-- Databases created before HELD reject it, through the named constraint of V1 or
+-- the one Hibernate generated for the enum column, so both are replaced
+ALTER TABLE kitchen_tickets DROP CONSTRAINT IF EXISTS chk_ticket_status;
+ALTER TABLE kitchen_tickets DROP CONSTRAINT IF EXISTS kitchen_tickets_status_check;
+ALTER TABLE kitchen_tickets ADD CONSTRAINT chk_ticket_status
+    CHECK (status IN ('HELD', 'NEW', 'IN_PROGRESS', 'READY', 'DELIVERED', 'CANCELLED'));
+
+-- An order now has one ticket per station and course
+ALTER TABLE kitchen_tickets DROP CONSTRAINT IF EXISTS uk_tickets_order_station;
+ALTER TABLE kitchen_tickets DROP CONSTRAINT IF EXISTS uk_tickets_order_station_course;
+ALTER TABLE kitchen_tickets ADD CONSTRAINT uk_tickets_order_station_course
+    UNIQUE (order_id, station_id, course_rank);
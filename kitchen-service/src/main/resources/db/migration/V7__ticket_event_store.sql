@@ -0,0 +1,20 @@
+-- Append-only ticket change log; the KDS board is rebuilt from it
+CREATE SEQUENCE IF NOT EXISTS ticket_event_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS ticket_events (
+    seq BIGINT PRIMARY KEY,
+    ticket_id VARCHAR(255) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+-- Active board folded up to seq
+CREATE TABLE IF NOT EXISTS ticket_snapshots (
+    seq BIGINT PRIMARY KEY,
+    taken_at TIMESTAMP NOT NULL,
+    ticket_count INTEGER,
+    payload TEXT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_events_recorded ON ticket_events(recorded_at);
@@ -0,0 +1,30 @@
+package com.pao.kitchen;
+
+import com.pao.kitchen.events.publisher.KitchenEventPublisher;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * The whole service against a real Postgres, migrated by Flyway. Kafka is left
+ * out: listeners don't start and outgoing events go to a mock publisher.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.listener.auto-startup=false",
+        "spring.kafka.admin.auto-create=false",
+        "spring.jpa.show-sql=false",
+        "pos.schema-registry.dir=${java.io.tmpdir}/kitchen-test-schema-registry"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @MockBean
+    protected KitchenEventPublisher eventPublisher;
+}
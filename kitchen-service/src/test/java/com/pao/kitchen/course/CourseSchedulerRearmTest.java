@@ -0,0 +1,92 @@
+package com.pao.kitchen.course;
+
+import com.pao.kitchen.PostgresIntegrationTest;
+import com.pao.kitchen.domain.KitchenTicket;
+import com.pao.kitchen.domain.TicketPriority;
+import com.pao.kitchen.domain.TicketStatus;
+import com.pao.kitchen.repository.KitchenTicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * What a restarted instance finds: held courses whose earlier courses closed
+ * while nothing was left to arm them, next to orders still cooking and
+ * courses that were armed before the crash.
+ */
+class CourseSchedulerRearmTest extends PostgresIntegrationTest {
+
+    @Autowired
+    CourseScheduler courseScheduler;
+
+    @Autowired
+    CourseProperties courseProperties;
+
+    @Autowired
+    KitchenTicketRepository ticketRepository;
+
+    @Test
+    void rearmArmsTheNextCourseOfOrdersWhoseEarlierCoursesClosed() {
+        String orderId = UUID.randomUUID().toString();
+        LocalDateTime appetizerReady = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        ticket(orderId, 0, TicketStatus.READY, appetizerReady, null);
+        KitchenTicket main = ticket(orderId, 1, TicketStatus.HELD, null, null);
+        KitchenTicket dessert = ticket(orderId, 2, TicketStatus.HELD, null, null);
+
+        courseScheduler.rearm();
+
+        // Paced from when the appetizer was ready, not from the restart
+        assertThat(ticketRepository.findById(main.getId()).orElseThrow().getFireAt())
+                .isEqualTo(appetizerReady.plusMinutes(courseProperties.pacingMinutesFor(1)));
+        assertThat(ticketRepository.findById(dessert.getId()).orElseThrow().getFireAt()).isNull();
+    }
+
+    @Test
+    void rearmLeavesCoursesWaitingOnAnOpenCourseUnarmed() {
+        String orderId = UUID.randomUUID().toString();
+        ticket(orderId, 0, TicketStatus.IN_PROGRESS, null, null);
+        KitchenTicket main = ticket(orderId, 1, TicketStatus.HELD, null, null);
+
+        courseScheduler.rearm();
+
+        assertThat(ticketRepository.findById(main.getId()).orElseThrow().getFireAt()).isNull();
+    }
+
+    @Test
+    void rearmKeepsTheFireTimeOfCoursesArmedBeforeTheRestart() {
+        String orderId = UUID.randomUUID().toString();
+        LocalDateTime fireAt = LocalDateTime.now().plusMinutes(3).truncatedTo(ChronoUnit.SECONDS);
+        ticket(orderId, 0, TicketStatus.READY, LocalDateTime.now().minusMinutes(2), null);
+        KitchenTicket main = ticket(orderId, 1, TicketStatus.HELD, null, fireAt);
+
+        courseScheduler.rearm();
+
+        KitchenTicket reloaded = ticketRepository.findById(main.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(TicketStatus.HELD);
+        assertThat(reloaded.getFireAt()).isEqualTo(fireAt);
+    }
+
+    private KitchenTicket ticket(String orderId, int courseRank, TicketStatus status,
+                                 LocalDateTime completedAt, LocalDateTime fireAt) {
+        return ticketRepository.save(KitchenTicket.builder()
+                .orderId(orderId)
+                .tableId("TABLE-1")
+                .stationId("GRILL")
+                .status(status)
+                .priority(TicketPriority.NORMAL)
+                .receivedAt(LocalDateTime.now().minusMinutes(30))
+                .completedAt(completedAt)
+                .fireAt(fireAt)
+                .courseRank(courseRank)
+                .itemCount(0)
+                .readyCount(0)
+                .items(new ArrayList<>())
+                .build());
+    }
+}
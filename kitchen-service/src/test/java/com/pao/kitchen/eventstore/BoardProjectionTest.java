@@ -0,0 +1,103 @@
+package com.pao.kitchen.eventstore;
+
+import com.pao.kitchen.board.TicketItemReady;
+import com.pao.kitchen.board.TicketItemView;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.domain.ItemStatus;
+import com.pao.kitchen.domain.TicketPriority;
+import com.pao.kitchen.domain.TicketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardProjectionTest {
+
+    private static final LocalDateTime RECEIVED = LocalDateTime.of(2024, 1, 1, 19, 0);
+
+    @Test
+    void replayingAnOverlappingTailGivesTheSameBoard() {
+        BoardProjection live = new BoardProjection(0, List.of());
+        live.applyChange(1, ticket("t1", TicketStatus.NEW));
+        live.applyChange(2, ticket("t2", TicketStatus.NEW));
+        live.applyChange(3, ticket("t1", TicketStatus.IN_PROGRESS));
+
+        // Snapshot at seq 3, then a tail that starts before it
+        BoardProjection rebuilt = new BoardProjection(live.lastSeq(), live.tickets());
+        rebuilt.applyChange(2, ticket("t2", TicketStatus.NEW));
+        rebuilt.applyChange(3, ticket("t1", TicketStatus.IN_PROGRESS));
+        rebuilt.applyItemReady(4, new TicketItemReady("t1", "order-t1", "GRILL", "t1-item-0", false));
+        live.applyItemReady(4, new TicketItemReady("t1", "order-t1", "GRILL", "t1-item-0", false));
+
+        assertThat(rebuilt.lastSeq()).isEqualTo(4);
+        assertThat(rebuilt.tickets()).containsExactlyInAnyOrderElementsOf(live.tickets());
+        assertThat(view(rebuilt, "t1").getItems())
+                .extracting(TicketItemView::getStatus)
+                .containsExactly(ItemStatus.READY, ItemStatus.PENDING);
+    }
+
+    @Test
+    void olderEventsDoNotOverwriteNewerState() {
+        BoardProjection projection = new BoardProjection(0, List.of());
+        projection.applyChange(5, ticket("t1", TicketStatus.IN_PROGRESS));
+        projection.applyChange(4, ticket("t1", TicketStatus.NEW));
+
+        assertThat(view(projection, "t1").getStatus()).isEqualTo(TicketStatus.IN_PROGRESS);
+        assertThat(projection.lastSeq()).isEqualTo(5);
+    }
+
+    @Test
+    void ticketsLeaveTheBoardWhenCompletedOrNoLongerActive() {
+        BoardProjection projection = new BoardProjection(0, List.of());
+        projection.applyChange(1, ticket("t1", TicketStatus.IN_PROGRESS));
+        projection.applyChange(2, ticket("t2", TicketStatus.NEW));
+        projection.applyChange(3, ticket("t3", TicketStatus.HELD));
+
+        projection.applyItemReady(4, new TicketItemReady("t1", "order-t1", "GRILL", "t1-item-0", false));
+        projection.applyItemReady(5, new TicketItemReady("t1", "order-t1", "GRILL", "t1-item-1", true));
+        projection.applyChange(6, ticket("t2", TicketStatus.CANCELLED));
+
+        assertThat(projection.tickets()).isEmpty();
+    }
+
+    @Test
+    void itemReadyForAnUnknownTicketIsIgnored() {
+        BoardProjection projection = new BoardProjection(0, List.of());
+        projection.applyItemReady(1, new TicketItemReady("gone", "order-gone", "GRILL", "gone-item-0", true));
+
+        assertThat(projection.tickets()).isEmpty();
+        assertThat(projection.lastSeq()).isEqualTo(1);
+    }
+
+    private static TicketView view(BoardProjection projection, String ticketId) {
+        return projection.tickets().stream()
+                .map(ProjectedTicket::view)
+                .filter(view -> view.getTicketId().equals(ticketId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static TicketView ticket(String ticketId, TicketStatus status) {
+        return TicketView.builder()
+                .ticketId(ticketId)
+                .orderId("order-" + ticketId)
+                .tableId("TABLE-1")
+                .stationId("GRILL")
+                .status(status)
+                .priority(TicketPriority.NORMAL)
+                .receivedAt(RECEIVED)
+                .items(List.of(item(ticketId + "-item-0"), item(ticketId + "-item-1")))
+                .build();
+    }
+
+    private static TicketItemView item(String itemId) {
+        return TicketItemView.builder()
+                .itemId(itemId)
+                .itemName("Burger")
+                .quantity(1)
+                .status(ItemStatus.PENDING)
+                .build();
+    }
+}
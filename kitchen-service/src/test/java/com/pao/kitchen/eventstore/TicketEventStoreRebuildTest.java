@@ -0,0 +1,131 @@
+package com.pao.kitchen.eventstore;
+
+import com.pao.events.ModificationDTO;
+import com.pao.events.OrderItemDTO;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.kitchen.PostgresIntegrationTest;
+import com.pao.kitchen.board.KdsBoard;
+import com.pao.kitchen.board.TicketView;
+import com.pao.kitchen.domain.KitchenTicket;
+import com.pao.kitchen.domain.TicketItem;
+import com.pao.kitchen.domain.TicketSnapshot;
+import com.pao.kitchen.domain.TicketStatus;
+import com.pao.kitchen.repository.TicketEventRepository;
+import com.pao.kitchen.repository.TicketSnapshotRepository;
+import com.pao.kitchen.service.KitchenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The board a restart rebuilds from the latest snapshot and the events after
+ * it must be the board the running instance holds.
+ */
+@TestPropertySource(properties = {
+        "kitchen.event-store.snapshot-every=1",
+        "kitchen.event-store.snapshot-check-ms=3600000"
+})
+class TicketEventStoreRebuildTest extends PostgresIntegrationTest {
+
+    @Autowired
+    KitchenService kitchenService;
+
+    @Autowired
+    TicketEventStore eventStore;
+
+    @Autowired
+    KdsBoard kdsBoard;
+
+    @Autowired
+    TicketSnapshotRepository snapshotRepository;
+
+    @Autowired
+    TicketEventRepository eventRepository;
+
+    @Test
+    void rebuildFromSnapshotAndTailMatchesTheLiveBoard() {
+        List<String> orderIds = new ArrayList<>();
+        List<KitchenTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String orderId = UUID.randomUUID().toString();
+            orderIds.add(orderId);
+            tickets.addAll(kitchenService.createTicketFromOrder(order(orderId)));
+        }
+        List<KitchenTicket> fired = tickets.stream()
+                .filter(ticket -> ticket.getStatus() == TicketStatus.NEW)
+                .toList();
+        assertThat(fired).hasSizeGreaterThanOrEqualTo(4);
+
+        // Before the snapshot: one ticket started, one with an item bumped
+        kitchenService.startTicket(fired.get(0).getId());
+        bump(fired.get(1), 1);
+
+        eventStore.snapshotIfDue();
+        TicketSnapshot snapshot = snapshotRepository.findTopByOrderBySeqDesc().orElseThrow();
+
+        // After it: a ticket completed off the board, one rushed, one started then bumped,
+        // and an order's held course fired
+        bump(fired.get(0), fired.get(0).getItems().size());
+        kitchenService.rushTicket(fired.get(2).getId());
+        kitchenService.startTicket(fired.get(3).getId());
+        bump(fired.get(3), 1);
+        kitchenService.fireCourse(orderIds.get(0), 1);
+
+        assertThat(eventRepository.countBySeqGreaterThan(snapshot.getSeq())).isGreaterThan(0);
+        assertThat(ours(eventStore.rebuildActiveTickets(), orderIds))
+                .isNotEmpty()
+                .containsExactlyInAnyOrderElementsOf(ours(kdsBoard.getTickets(null), orderIds));
+        assertThat(ours(kdsBoard.getTickets(null), orderIds))
+                .extracting(TicketView::getTicketId)
+                .doesNotContain(fired.get(0).getId());
+    }
+
+    private void bump(KitchenTicket ticket, int items) {
+        for (TicketItem item : ticket.getItems().subList(0, items)) {
+            kitchenService.markItemReady(ticket.getId(), item.getId());
+        }
+    }
+
+    // Other tests share the database, so compare only this test's orders
+    private static List<TicketView> ours(List<TicketView> board, List<String> orderIds) {
+        Set<String> orders = Set.copyOf(orderIds);
+        return board.stream()
+                .filter(ticket -> orders.contains(ticket.getOrderId()))
+                .collect(Collectors.toList());
+    }
+
+    private static OrderSubmittedEvent order(String orderId) {
+        return OrderSubmittedEvent.newBuilder()
+                .setOrderId(orderId)
+                .setTableId("TABLE-7")
+                .setTotal(new BigDecimal("64.00"))
+                .setItems(List.of(
+                        item("calamari", "Calamari", "APPETIZER"),
+                        item("bruschetta", "Bruschetta", "APPETIZER"),
+                        item("ribeye", "Ribeye Steak", "MAIN")))
+                .setTimestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static OrderItemDTO item(String menuItemId, String name, String courseType) {
+        return OrderItemDTO.newBuilder()
+                .setItemId(UUID.randomUUID().toString())
+                .setMenuItemId(menuItemId)
+                .setName(name)
+                .setQuantity(1)
+                .setUnitPrice(new BigDecimal("16.00"))
+                .setCourseType(courseType)
+                .setModifications(List.of(ModificationDTO.newBuilder().setName("No salt").build()))
+                .build();
+    }
+}
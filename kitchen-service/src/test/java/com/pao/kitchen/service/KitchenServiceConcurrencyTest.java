@@ -0,0 +1,157 @@
+package com.pao.kitchen.service;
+
+import com.pao.events.TicketCompletedEvent;
+import com.pao.kitchen.PostgresIntegrationTest;
+import com.pao.kitchen.domain.ItemStatus;
+import com.pao.kitchen.domain.KitchenTicket;
+import com.pao.kitchen.domain.TicketItem;
+import com.pao.kitchen.domain.TicketPriority;
+import com.pao.kitchen.domain.TicketStatus;
+import com.pao.kitchen.repository.KitchenTicketRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class KitchenServiceConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    KitchenService kitchenService;
+
+    @SpyBean
+    KitchenTicketRepository ticketRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentBumpsCompleteTheTicketExactlyOnce() throws Exception {
+        KitchenTicket ticket = newTicket(THREADS);
+        List<String> itemIds = ticket.getItems().stream().map(TicketItem::getId).toList();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<ItemReadyResult>>> results = new ArrayList<>();
+        try {
+            for (String itemId : itemIds) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    // The second bump of the same item must change nothing
+                    return List.of(kitchenService.markItemReady(ticket.getId(), itemId),
+                            kitchenService.markItemReady(ticket.getId(), itemId));
+                }));
+            }
+            start.countDown();
+
+            for (Future<List<ItemReadyResult>> result : results) {
+                for (ItemReadyResult bump : result.get(60, TimeUnit.SECONDS)) {
+                    assertThat(bump.getReadyCount()).isBetween(1, THREADS);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(eventPublisher, times(1)).publishTicketCompleted(any(TicketCompletedEvent.class));
+        transactionTemplate.executeWithoutResult(status -> {
+            KitchenTicket reloaded = ticketRepository.findById(ticket.getId()).orElseThrow();
+            assertThat(reloaded.getStatus()).isEqualTo(TicketStatus.READY);
+            assertThat(reloaded.getReadyCount()).isEqualTo(THREADS);
+            assertThat(reloaded.getItems()).extracting(TicketItem::getStatus).containsOnly(ItemStatus.READY);
+            assertThat(reloaded.getItems()).extracting(TicketItem::getCompletedAt).doesNotContainNull();
+        });
+    }
+
+    @Test
+    void startRacingABumpRetriesInsteadOfOverwritingIt() throws Exception {
+        KitchenTicket ticket = newTicket(3);
+        String bumpedItem = ticket.getItems().get(0).getId();
+
+        // Hold the start's first attempt between its read and its write until a bump has committed.
+        // A spied repository is an interface mock whose default answer delegates to the real one.
+        Answer<?> repository = mockingDetails(ticketRepository).getMockCreationSettings().getDefaultAnswer();
+        AtomicBoolean firstRead = new AtomicBoolean(true);
+        CountDownLatch readDone = new CountDownLatch(1);
+        CountDownLatch bumpDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Object loaded = repository.answer(invocation);
+            if (firstRead.compareAndSet(true, false)) {
+                readDone.countDown();
+                assertThat(bumpDone.await(30, TimeUnit.SECONDS)).isTrue();
+            }
+            return loaded;
+        }).when(ticketRepository).findById(ticket.getId());
+
+        CompletableFuture<KitchenTicket> start = CompletableFuture.supplyAsync(
+                () -> kitchenService.startTicket(ticket.getId()));
+        assertThat(readDone.await(30, TimeUnit.SECONDS)).isTrue();
+        kitchenService.markItemReady(ticket.getId(), bumpedItem);
+        bumpDone.countDown();
+
+        KitchenTicket started = start.get(30, TimeUnit.SECONDS);
+        assertThat(started.getStatus()).isEqualTo(TicketStatus.IN_PROGRESS);
+        // One read for the attempt that lost the version check, one for the retry
+        verify(ticketRepository, times(2)).findById(ticket.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            KitchenTicket reloaded = ticketRepository.findById(ticket.getId()).orElseThrow();
+            assertThat(reloaded.getStatus()).isEqualTo(TicketStatus.IN_PROGRESS);
+            assertThat(reloaded.getReadyCount()).isEqualTo(1);
+            for (TicketItem item : reloaded.getItems()) {
+                assertThat(item.getStatus()).isEqualTo(item.getId().equals(bumpedItem)
+                        ? ItemStatus.READY : ItemStatus.PREPARING);
+            }
+        });
+    }
+
+    private KitchenTicket newTicket(int items) {
+        return transactionTemplate.execute(status -> {
+            KitchenTicket ticket = KitchenTicket.builder()
+                    .orderId(UUID.randomUUID().toString())
+                    .tableId("TABLE-1")
+                    .stationId("GRILL")
+                    .status(TicketStatus.NEW)
+                    .priority(TicketPriority.NORMAL)
+                    .receivedAt(LocalDateTime.now())
+                    .courseRank(0)
+                    .itemCount(items)
+                    .readyCount(0)
+                    .items(new ArrayList<>())
+                    .build();
+            for (int i = 0; i < items; i++) {
+                ticket.addItem(TicketItem.builder()
+                        .orderItemId("order-item-" + i)
+                        .menuItemId("menu-" + i)
+                        .itemName("Item " + i)
+                        .quantity(1)
+                        .modifications(new ArrayList<>())
+                        .status(ItemStatus.PENDING)
+                        .courseType("MAIN")
+                        .build());
+            }
+            return ticketRepository.save(ticket);
+        });
+    }
+}
@@ -1,23 +1,41 @@
 package com.pao.order.config;
 
+import com.pao.events.kafka.KafkaProducerProfile;
+import com.pao.events.serialization.AvroEventSerializer;
+import com.pao.events.serialization.FileSchemaRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
-
 
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
 
+    private final String bootstrapServers;
+
+    public KafkaConfig(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    // The profile is a plain class from the events module; the outbox producer applies it too
+    @Bean
+    @ConfigurationProperties(prefix = "pos.kafka.producer")
+    public KafkaProducerProfile kafkaProducerProfile() {
+        return new KafkaProducerProfile();
+    }
+
     @Bean
     public NewTopic orderEventsTopic() {
         return TopicBuilder.name("order-events")
@@ -35,18 +53,30 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public FileSchemaRegistry schemaRegistry(@Value("${pos.schema-registry.dir}") String registryDir) {
+        return new FileSchemaRegistry(Path.of(registryDir));
+    }
+
+    @Bean
+    public AvroEventSerializer avroEventSerializer(FileSchemaRegistry schemaRegistry) {
+        return new AvroEventSerializer(schemaRegistry);
+    }
+
+    // Outbox payloads are already Avro-encoded, so the relay sends them as raw bytes
+    @Bean
+    public ProducerFactory<String, byte[]> outboxProducerFactory(KafkaProducerProfile producerProfile) {
         Map<String, Object> config = new HashMap<>();
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.putAll(producerProfile.toConfig());
         return new DefaultKafkaProducerFactory<>(config);
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, byte[]> outboxKafkaTemplate(ProducerFactory<String, byte[]> outboxProducerFactory) {
+        return new KafkaTemplate<>(outboxProducerFactory);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.pao.order.controller;
+
+import lombok.Data;
+import lombok.Getter;
+
+import java.util.List;
+
+@Data
+@Getter
+public class AddItemsRequest {
+    private List<AddItemRequest> items;
+}
@@ -1,10 +1,21 @@
 package com.pao.order.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pao.order.domain.Order;
+import com.pao.order.domain.OrderItem;
+import com.pao.order.service.OrderPage;
 import com.pao.order.service.OrderService;
+import com.pao.order.service.SyncAckResult;
 import lombok.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -13,9 +24,11 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
-    public OrderController(OrderService orderService){
+    public OrderController(OrderService orderService, ObjectMapper objectMapper){
         this.orderService = orderService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -29,7 +42,7 @@ public class OrderController {
     }
 
     @PostMapping("/{orderId}/items")
-    public ResponseEntity<Order> addItem(@PathVariable String orderId,
+    public ResponseEntity<Order> addItem(@PathVariable(name = "orderId") String orderId,
                                          @RequestBody AddItemRequest request) {
         Order order = orderService.addItemToOrder(
                 orderId,
@@ -43,15 +56,60 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    @PostMapping("/{orderId}/items/batch")
+    public ResponseEntity<Order> addItems(@PathVariable(name = "orderId") String orderId,
+                                          @RequestBody AddItemsRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No items to add");
+        }
+        List<OrderItem> items = request.getItems().stream()
+                .map(item -> OrderItem.builder()
+                        .menuItemId(item.getMenuItemId())
+                        .name(item.getName())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .modifications(item.getModifications())
+                        .courseType(item.getCourseType())
+                        .build())
+                .toList();
+        Order order = orderService.addItemsToOrder(orderId, items);
+        return ResponseEntity.ok(order);
+    }
+
     @PostMapping("/{orderId}/submit")
-    public ResponseEntity<Order> submitOrder(@PathVariable String orderId) {
+    public ResponseEntity<Order> submitOrder(@PathVariable(name = "orderId") String orderId) {
         Order order = orderService.submitOrder(orderId);
         return ResponseEntity.ok(order);
     }
 
     @GetMapping("/unsynced")
-    public ResponseEntity<List<Order>> getUnsyncedOrders() {
-        return ResponseEntity.ok(orderService.getUnsyncedOrders());
+    public ResponseEntity<OrderPage> getUnsyncedOrders(@RequestParam(name = "cursor", required = false) String cursor,
+                                                       @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(orderService.getUnsyncedOrders(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    @PostMapping("/sync-ack")
+    public ResponseEntity<SyncAckResult> acknowledgeSync(@RequestBody SyncAckRequest request) {
+        return ResponseEntity.ok(orderService.markAsSynced(request.getOrderIds(), request.getSyncedThrough()));
+    }
+
+    @GetMapping(value = "/unsynced/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUnsyncedOrders() {
+        StreamingResponseBody body = out -> orderService.forEachUnsyncedOrder(order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 }
 
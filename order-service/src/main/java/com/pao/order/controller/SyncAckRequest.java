@@ -0,0 +1,15 @@
+package com.pao.order.controller;
+
+import lombok.Data;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Getter
+public class SyncAckRequest {
+    private List<String> orderIds;
+    // Optional high-water mark: also acknowledge every order created at or before this instant
+    private LocalDateTime syncedThrough;
+}
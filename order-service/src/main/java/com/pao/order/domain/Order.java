@@ -1,5 +1,6 @@
 package com.pao.order.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,6 +20,9 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 public class Order {
+    // 8% sales tax
+    private static final long TAX_RATE_BASIS_POINTS = 800L;
+
     @Id
     private String id;
 
@@ -44,17 +49,59 @@ public class Order {
     private boolean synced;
     private LocalDateTime syncedAt;
 
+    // Running subtotal in cents; seeded on load and adjusted by every item change
+    @JsonIgnore
+    @Transient
+    private long subtotalCents;
+
+    @PostLoad
+    void seedRunningTotal() {
+        subtotalCents = subtotal != null ? toCents(subtotal) : 0L;
+    }
+
     public void addItem(OrderItem item) {
+        item.calculateTotal();
         items.add(item);
         item.setOrder(this);
-        recalculateTotal();
+        applyDelta(toCents(item.getTotalPrice()));
+    }
+
+    public void addItems(List<OrderItem> newItems) {
+        long deltaCents = 0L;
+        for (OrderItem item : newItems) {
+            item.calculateTotal();
+            items.add(item);
+            item.setOrder(this);
+            deltaCents += toCents(item.getTotalPrice());
+        }
+        applyDelta(deltaCents);
     }
 
+    /**
+     * Full recomputation from the item lines. addItem and addItems keep the
+     * totals current, so this is only needed after editing lines directly.
+     */
     public void recalculateTotal() {
-        subtotal = items.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        tax = subtotal.multiply(new BigDecimal("0.08"));
-        total = subtotal.add(tax);
+        long cents = 0L;
+        for (OrderItem item : items) {
+            cents += toCents(item.getTotalPrice());
+        }
+        subtotalCents = 0L;
+        applyDelta(cents);
+    }
+
+    private void applyDelta(long deltaCents) {
+        subtotalCents += deltaCents;
+        long taxCents = Math.floorDiv(subtotalCents * TAX_RATE_BASIS_POINTS + 5_000L, 10_000L);
+        subtotal = BigDecimal.valueOf(subtotalCents, 2);
+        tax = BigDecimal.valueOf(taxCents, 2);
+        total = BigDecimal.valueOf(subtotalCents + taxCents, 2);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount.scale() == 2) {
+            return amount.unscaledValue().longValueExact();
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.pao.order.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.pao.persistence.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,9 +21,10 @@ import java.util.List;
 @Builder
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
@@ -33,7 +36,7 @@ public class OrderItem {
     private BigDecimal totalPrice;
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "order_item_id")
+    @JoinColumn(name = "order_item_id", nullable = false)
     private List<ItemModification> modifications = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
@@ -42,12 +45,24 @@ public class OrderItem {
     private String courseType;
     private LocalDateTime sentToKitchenAt;
 
-    @PrePersist
-    @PreUpdate
+    /**
+     * Recomputes the line total. Called by {@link Order} as each line is added,
+     * so flushes no longer re-reduce every line.
+     */
     public void calculateTotal() {
-        BigDecimal modPrice = modifications.stream()
-                .map(ItemModification::getPriceAdjustment)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        totalPrice = unitPrice.add(modPrice).multiply(new BigDecimal(quantity));
+        BigDecimal linePrice = unitPrice;
+        for (ItemModification mod : modifications) {
+            if (mod.getPriceAdjustment() != null) {
+                linePrice = linePrice.add(mod.getPriceAdjustment());
+            }
+        }
+        totalPrice = linePrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    @PrePersist
+    void ensureTotal() {
+        if (totalPrice == null) {
+            calculateTotal();
+        }
     }
-}
\ No newline at end of file
+}
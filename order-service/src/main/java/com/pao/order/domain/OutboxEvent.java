@@ -0,0 +1,34 @@
+package com.pao.order.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event waiting to be relayed to Kafka. Rows are written in the same
+ * transaction as the order change and deleted once the broker has acked them.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String aggregateId;
+    private String topic;
+    private String eventType;
+
+    // Avro single-object encoded event
+    private byte[] payload;
+
+    private LocalDateTime createdAt;
+}
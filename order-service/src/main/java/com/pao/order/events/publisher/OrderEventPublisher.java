@@ -1,36 +1,59 @@
 package com.pao.order.events.publisher;
 
-import com.pao.order.events.OrderCreatedEvent;
-import com.pao.order.events.OrderItemAddedEvent;
-import com.pao.order.events.OrderSubmittedEvent;
+import com.pao.events.OrderCreatedEvent;
+import com.pao.events.OrderItemAddedEvent;
+import com.pao.events.OrderSubmittedEvent;
+import com.pao.order.domain.OutboxEvent;
+import com.pao.events.serialization.AvroEventSerializer;
+import com.pao.order.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/**
+ * Writes order events to the outbox table inside the caller's transaction.
+ * {@link com.pao.order.scheduler.OutboxRelay} ships them to Kafka afterwards,
+ * so no broker round-trip happens on the request path.
+ */
 @Service
+@RequiredArgsConstructor
 @Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
 public class OrderEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-
-    public OrderEventPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
-    }
+    private final OutboxEventRepository outboxRepository;
+    private final AvroEventSerializer serializer;
     private static final String TOPIC = "order-events";
 
     public void publishOrderCreated(OrderCreatedEvent event) {
         log.info("Publishing OrderCreatedEvent for order: {}", event.getOrderId());
-        kafkaTemplate.send(TOPIC, event.getOrderId(), event);
+        enqueue(TOPIC, event.getOrderId(), event);
     }
 
     public void publishOrderItemAdded(OrderItemAddedEvent event) {
         log.info("Publishing OrderItemAddedEvent for order: {}", event.getOrderId());
-        kafkaTemplate.send(TOPIC, event.getOrderId(), event);
+        enqueue(TOPIC, event.getOrderId(), event);
     }
 
     public void publishOrderSubmitted(OrderSubmittedEvent event) {
         log.info("Publishing OrderSubmittedEvent for order: {}", event.getOrderId());
-        kafkaTemplate.send(TOPIC, event.getOrderId(), event);
-        kafkaTemplate.send("kitchen-events", event.getOrderId(), event);
+        enqueue(TOPIC, event.getOrderId(), event);
+        enqueue("kitchen-events", event.getOrderId(), event);
+    }
+
+    // Payload is stored already encoded, so the relay ships the bytes as-is
+    private void enqueue(String topic, String key, SpecificRecord event) {
+        outboxRepository.save(OutboxEvent.builder()
+                .aggregateId(key)
+                .topic(topic)
+                .eventType(event.getSchema().getFullName())
+                .payload(serializer.serialize(topic, event))
+                .createdAt(LocalDateTime.now())
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,62 @@ package com.pao.order.repository;
 
 import com.pao.order.domain.Order;
 import com.pao.order.domain.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
+// Items are fetch-joined; their modifications are batch-fetched (hibernate.default_batch_fetch_size),
+// since joining both bags at once is not allowed
 public interface OrderRepository extends JpaRepository<Order, String> {
+    @Override
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findById(String id);
+
+    @EntityGraph(attributePaths = "items")
     List<Order> findByTableId(String tableId);
+
+    @EntityGraph(attributePaths = "items")
     List<Order> findByStatusIn(List<OrderStatus> statuses);
 
-    @Query("SELECT o FROM Order o WHERE o.synced = false ORDER BY o.createdAt")
-    List<Order> findUnsyncedOrders();
-}
\ No newline at end of file
+    // Keyset pages over (createdAt, id); items are batch-fetched so the LIMIT stays in SQL
+    @Query("SELECT o FROM Order o WHERE o.synced = false ORDER BY o.createdAt, o.id")
+    List<Order> findUnsyncedOrders(Limit limit);
+
+    // A row comparison, so Postgres seeks to the cursor in idx_orders_unsynced instead of filtering up to it
+    @Query("SELECT o FROM Order o WHERE o.synced = false " +
+            "AND (o.createdAt, o.id) > (:createdAt, :id) " +
+            "ORDER BY o.createdAt, o.id")
+    List<Order> findUnsyncedOrdersAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") String id,
+                                        Limit limit);
+
+    // Only ids are streamed; each chunk of them is then loaded with its items in one query
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT o.id FROM Order o WHERE o.synced = false ORDER BY o.createdAt, o.id")
+    Stream<String> streamUnsyncedOrderIds();
+
+    @EntityGraph(attributePaths = "items")
+    List<Order> findByIdIn(Collection<String> ids);
+
+    // Set-based sync acknowledgement; RETURNING reports exactly which rows flipped
+    @Query(value = "UPDATE orders SET synced = true, synced_at = :syncedAt, version = version + 1 " +
+            "WHERE id IN (:ids) AND synced = false RETURNING id", nativeQuery = true)
+    List<String> markSynced(@Param("ids") Collection<String> ids, @Param("syncedAt") LocalDateTime syncedAt);
+
+    @Query(value = "UPDATE orders SET synced = true, synced_at = :syncedAt, version = version + 1 " +
+            "WHERE synced = false AND created_at <= :createdAt RETURNING id", nativeQuery = true)
+    List<String> markSyncedThrough(@Param("createdAt") LocalDateTime createdAt,
+                                   @Param("syncedAt") LocalDateTime syncedAt);
+}
@@ -0,0 +1,87 @@
+package com.pao.order.scheduler;
+
+import com.pao.order.domain.OutboxEvent;
+import com.pao.order.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the order outbox to Kafka in batches. All sends of a batch are
+ * pipelined and only rows the broker acked are deleted, so events are
+ * delivered at least once and in outbox order.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaTemplate<String, byte[]> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:100}")
+    public void relayPendingEvents() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            futures.add(outboxKafkaTemplate.send(toRecord(event)));
+        }
+
+        // Delete only the acked prefix; anything after a failure is resent to keep ordering
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(batch.get(i).getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Failed to relay outbox event {}, will retry", batch.get(i).getId(), e);
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.deleteByIdIn(sentIds);
+            log.debug("Relayed {} outbox events", sentIds.size());
+        }
+        return sentIds.size();
+    }
+
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        return new ProducerRecord<>(event.getTopic(), event.getAggregateId(), event.getPayload());
+    }
+}
@@ -0,0 +1,15 @@
+package com.pao.order.service;
+
+import com.pao.order.domain.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderPage {
+    private List<Order> orders;
+    // Opaque keyset cursor for the next page; null when this is the last page
+    private String nextCursor;
+}
@@ -1,20 +1,33 @@
 package com.pao.order.service;
 
 import com.pao.order.domain.*;
-import com.pao.order.events.*;
+import com.pao.events.*;
 import com.pao.order.events.publisher.OrderEventPublisher;
 import com.pao.order.repository.OrderRepository;
-import jakarta.transaction.Transactional;
+import com.pao.persistence.id.UuidV7;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,10 +36,15 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int SYNC_ACK_CHUNK_SIZE = 1000;
+    private static final int UNSYNCED_STREAM_CHUNK_SIZE = 200;
 
     @Transactional
     public Order createOrder(String tableId, String serverId, String terminalId) {
-        String orderId = UUID.randomUUID().toString();
+        String orderId = UuidV7.nextId();
 
         Order order = Order.builder()
                 .id(orderId)
@@ -43,12 +61,12 @@ public class OrderService {
 
         order = orderRepository.save(order);
 
-        eventPublisher.publishOrderCreated(OrderCreatedEvent.builder()
-                .orderId(orderId)
-                .tableId(tableId)
-                .serverId(serverId)
-                .terminalId(terminalId)
-                .timestamp(LocalDateTime.now())
+        eventPublisher.publishOrderCreated(OrderCreatedEvent.newBuilder()
+                .setOrderId(orderId)
+                .setTableId(tableId)
+                .setServerId(serverId)
+                .setTerminalId(terminalId)
+                .setTimestamp(LocalDateTime.now())
                 .build());
 
         return order;
@@ -58,44 +76,55 @@ public class OrderService {
     public Order addItemToOrder(String orderId, String menuItemId, String name,
                                 Integer quantity, BigDecimal unitPrice,
                                 List<ItemModification> modifications, String courseType) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
         OrderItem item = OrderItem.builder()
                 .menuItemId(menuItemId)
                 .name(name)
                 .quantity(quantity)
                 .unitPrice(unitPrice)
                 .modifications(modifications != null ? modifications : new ArrayList<>())
-                .status(ItemStatus.PENDING)
                 .courseType(courseType)
                 .build();
 
-        order.addItem(item);
+        return addItemsToOrder(orderId, List.of(item));
+    }
+
+    /**
+     * Adds several lines in one transaction: one load, one save, one version
+     * bump and a single OrderItemAddedEvent carrying every added line.
+     */
+    @Transactional
+    public Order addItemsToOrder(String orderId, List<OrderItem> newItems) {
+        if (newItems == null || newItems.isEmpty()) {
+            throw new IllegalArgumentException("No items to add");
+        }
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+
+        newItems.forEach(item -> {
+            item.setStatus(ItemStatus.PENDING);
+            if (item.getModifications() == null) {
+                item.setModifications(new ArrayList<>());
+            }
+        });
+
+        order.addItems(newItems);
         order.setUpdatedAt(LocalDateTime.now());
-        order = orderRepository.save(order);
+        order = orderRepository.saveAndFlush(order);
 
-        List<ModificationDTO> modDTOs = modifications != null ?
-                modifications.stream()
-                        .map(m -> ModificationDTO.builder()
-                                .modificationId(m.getModificationId())
-                                .name(m.getName())
-                                .priceAdjustment(m.getPriceAdjustment())
-                                .build())
-                        .collect(Collectors.toList()) : new ArrayList<>();
+        // The saved aggregate holds the managed lines with their generated ids
+        List<OrderItem> saved = order.getItems();
+        List<OrderItemDTO> itemDTOs = saved.subList(saved.size() - newItems.size(), saved.size()).stream()
+                .map(OrderService::toItemDTO)
+                .collect(Collectors.toList());
 
-        eventPublisher.publishOrderItemAdded(OrderItemAddedEvent.builder()
-                .orderId(orderId)
-                .itemId(item.getId())
-                .menuItemId(menuItemId)
-                .name(name)
-                .quantity(quantity)
-                .unitPrice(unitPrice)
-                .modifications(modDTOs)
-                .timestamp(LocalDateTime.now())
+        eventPublisher.publishOrderItemAdded(OrderItemAddedEvent.newBuilder()
+                .setOrderId(orderId)
+                .setItems(itemDTOs)
+                .setTimestamp(LocalDateTime.now())
                 .build());
 
-        return order;
+        return loaded(order);
     }
 
     @Transactional
@@ -114,43 +143,167 @@ public class OrderService {
         order = orderRepository.save(order);
 
         List<OrderItemDTO> itemDTOs = order.getItems().stream()
-                .map(item -> OrderItemDTO.builder()
-                        .itemId(item.getId())
-                        .menuItemId(item.getMenuItemId())
-                        .name(item.getName())
-                        .quantity(item.getQuantity())
-                        .courseType(item.getCourseType())
-                        .modifications(item.getModifications().stream()
-                                .map(m -> ModificationDTO.builder()
-                                        .modificationId(m.getModificationId())
-                                        .name(m.getName())
-                                        .priceAdjustment(m.getPriceAdjustment())
-                                        .build())
-                                .collect(Collectors.toList()))
-                        .build())
+                .map(OrderService::toItemDTO)
                 .collect(Collectors.toList());
 
-        eventPublisher.publishOrderSubmitted(OrderSubmittedEvent.builder()
-                .orderId(orderId)
-                .tableId(order.getTableId())
-                .total(order.getTotal())
-                .items(itemDTOs)
-                .timestamp(LocalDateTime.now())
+        eventPublisher.publishOrderSubmitted(OrderSubmittedEvent.newBuilder()
+                .setOrderId(orderId)
+                .setTableId(order.getTableId())
+                .setTotal(order.getTotal())
+                .setItems(itemDTOs)
+                .setTimestamp(LocalDateTime.now())
                 .build());
 
         return order;
     }
 
-    public List<Order> getUnsyncedOrders() {
-        return orderRepository.findUnsyncedOrders();
+    @Transactional(readOnly = true)
+    public OrderPage getUnsyncedOrders(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findUnsyncedOrders(Limit.of(pageSize));
+        } else {
+            String[] key = decodeCursor(cursor);
+            orders = orderRepository.findUnsyncedOrdersAfter(
+                    parseCursorTime(key[0]), key[1], Limit.of(pageSize));
+        }
+
+        String nextCursor = null;
+        if (orders.size() == pageSize) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        orders.forEach(OrderService::loaded);
+        return new OrderPage(orders, nextCursor);
+    }
+
+    /**
+     * Streams every unsynced order through {@code action}. Ids are streamed and
+     * loaded with their items a chunk at a time, and the persistence context is
+     * cleared after each chunk so memory stays flat however large the backlog is.
+     */
+    @Transactional
+    public void forEachUnsyncedOrder(Consumer<Order> action) {
+        List<String> chunk = new ArrayList<>(UNSYNCED_STREAM_CHUNK_SIZE);
+        try (Stream<String> ids = orderRepository.streamUnsyncedOrderIds()) {
+            ids.forEach(id -> {
+                chunk.add(id);
+                if (chunk.size() == UNSYNCED_STREAM_CHUNK_SIZE) {
+                    forEachInChunk(chunk, action);
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            forEachInChunk(chunk, action);
+        }
+    }
+
+    private void forEachInChunk(List<String> chunk, Consumer<Order> action) {
+        Map<String, Order> byId = orderRepository.findByIdIn(chunk).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        for (String id : chunk) {
+            Order order = byId.get(id);
+            if (order != null) {
+                action.accept(order);
+            }
+        }
+        entityManager.clear();
+        chunk.clear();
     }
 
     @Transactional
     public void markAsSynced(String orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setSynced(true);
-        order.setSyncedAt(LocalDateTime.now());
-        orderRepository.save(order);
+        if (markAsSynced(List.of(orderId), null).getApplied().isEmpty()
+                && !orderRepository.existsById(orderId)) {
+            throw new RuntimeException("Order not found");
+        }
+    }
+
+    /**
+     * Acknowledges a sync batch with one UPDATE per chunk of ids, plus one for
+     * the optional high-water mark on createdAt. Ids that were unknown or
+     * already synced come back as skipped.
+     */
+    @Transactional
+    public SyncAckResult markAsSynced(List<String> orderIds, LocalDateTime syncedThrough) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> applied = new ArrayList<>();
+
+        if (orderIds != null) {
+            for (int from = 0; from < orderIds.size(); from += SYNC_ACK_CHUNK_SIZE) {
+                List<String> chunk = orderIds.subList(from, Math.min(from + SYNC_ACK_CHUNK_SIZE, orderIds.size()));
+                applied.addAll(orderRepository.markSynced(chunk, now));
+            }
+        }
+        if (syncedThrough != null) {
+            applied.addAll(orderRepository.markSyncedThrough(syncedThrough, now));
+        }
+
+        List<String> skipped = new ArrayList<>();
+        if (orderIds != null) {
+            Set<String> appliedIds = new HashSet<>(applied);
+            for (String id : orderIds) {
+                if (!appliedIds.contains(id)) {
+                    skipped.add(id);
+                }
+            }
+        }
+
+        log.info("Marked {} orders as synced ({} skipped)", applied.size(), skipped.size());
+        return new SyncAckResult(applied, skipped);
+    }
+
+    // Items and their modifications are lazy and the order is serialized after the transaction closes
+    private static Order loaded(Order order) {
+        order.getItems().forEach(item -> Hibernate.initialize(item.getModifications()));
+        return order;
+    }
+
+    private static OrderItemDTO toItemDTO(OrderItem item) {
+        return OrderItemDTO.newBuilder()
+                .setItemId(item.getId())
+                .setMenuItemId(item.getMenuItemId())
+                .setName(item.getName())
+                .setQuantity(item.getQuantity())
+                .setUnitPrice(money(item.getUnitPrice()))
+                .setCourseType(item.getCourseType())
+                .setModifications(item.getModifications().stream()
+                        .map(m -> ModificationDTO.newBuilder()
+                                .setModificationId(m.getModificationId())
+                                .setName(m.getName())
+                                .setPriceAdjustment(money(m.getPriceAdjustment()))
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    // Event decimals are fixed at scale 2
+    private static BigDecimal money(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, String id) {
+        String key = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Malformed cursors surface as IllegalArgumentException, which the controller maps to 400
+    private static String[] decodeCursor(String cursor) {
+        String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = key.split("\\|", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+
+    private static LocalDateTime parseCursorTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 }
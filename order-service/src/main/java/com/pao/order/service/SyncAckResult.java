@@ -0,0 +1,15 @@
+package com.pao.order.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SyncAckResult {
+    // Orders flipped to synced by this acknowledgement
+    private List<String> applied;
+    // Requested ids that were unknown or already synced
+    private List<String> skipped;
+}
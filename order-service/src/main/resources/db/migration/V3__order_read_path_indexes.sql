@@ -0,0 +1,13 @@
+-- Only unsynced rows are indexed, in keyset order (created_at, id), so the
+-- sync scan stays proportional to the backlog instead of the table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_unsynced ON orders(created_at, id) WHERE synced = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_synced;
+
+-- findByTableId / findByStatusIn hot paths
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_table_status ON orders(table_id, status);
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_table_id;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_status_created ON orders(status, created_at);
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_status;
+
+-- Modifications are batch-fetched by order_item_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_modifications_item_id ON item_modifications(order_item_id);
@@ -0,0 +1,11 @@
+-- Outbox payloads are Avro single-object encoded bytes instead of JSON text.
+-- Rows still holding JSON would be relayed as undecodable Avro, so the outbox
+-- must be drained (stop writes, let OutboxRelay empty it) before upgrading.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM order_outbox) THEN
+        RAISE EXCEPTION 'order_outbox still holds JSON events; drain it with the previous release before migrating';
+    END IF;
+END $$;
+
+ALTER TABLE order_outbox ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
@@ -0,0 +1,81 @@
+package com.pao.order.controller;
+
+import com.pao.order.events.publisher.OrderEventPublisher;
+import com.pao.order.repository.OrderRepository;
+import com.pao.order.service.OrderService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrderController.class)
+@Import(OrderService.class)
+class OrderControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    OrderRepository orderRepository;
+
+    @MockBean
+    OrderEventPublisher eventPublisher;
+
+    @MockBean
+    EntityManager entityManager;
+
+    @Test
+    void batchWithoutItemsIsABadRequest() throws Exception {
+        mockMvc.perform(post("/api/orders/order-1/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchWithAnEmptyItemListIsABadRequest() throws Exception {
+        mockMvc.perform(post("/api/orders/order-1/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cursorThatIsNotBase64IsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders/unsynced").param("cursor", "not base64!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cursorWithoutAnIdIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders/unsynced").param("cursor", cursor("2024-01-01T12:00")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cursorWithAMalformedTimestampIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders/unsynced").param("cursor", cursor("yesterday|order-1")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void wellFormedCursorIsAccepted() throws Exception {
+        mockMvc.perform(get("/api/orders/unsynced").param("cursor", cursor("2024-01-01T12:00|order-1")))
+                .andExpect(status().isOk());
+    }
+
+    private static String cursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
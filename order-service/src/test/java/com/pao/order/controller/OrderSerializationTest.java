@@ -0,0 +1,97 @@
+package com.pao.order.controller;
+
+import com.pao.order.domain.ItemModification;
+import com.pao.order.domain.Order;
+import com.pao.order.domain.OrderItem;
+import com.pao.order.events.publisher.OrderEventPublisher;
+import com.pao.order.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orders returned by the endpoints are serialized after the service
+ * transaction has closed, with open-in-view off, so every lazy item and
+ * modification must already be loaded.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.listener.auto-startup=false",
+        "spring.kafka.admin.auto-create=false",
+        "pos.schema-registry.dir=${java.io.tmpdir}/order-test-schema-registry"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class OrderSerializationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @MockBean
+    OrderEventPublisher eventPublisher;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    OrderService orderService;
+
+    @Test
+    void unsyncedPageSerializesItemsAndModifications() throws Exception {
+        Order order = orderService.createOrder("TABLE-3", "server-1", "terminal-1");
+        orderService.addItemsToOrder(order.getId(), List.of(burger()));
+
+        mockMvc.perform(get("/api/orders/unsynced").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders[?(@.id == '%s')].items[0].modifications[0].name", order.getId())
+                        .value(hasItem("No onions")));
+    }
+
+    @Test
+    void addingItemsSerializesTheLinesAlreadyOnTheOrder() throws Exception {
+        Order order = orderService.createOrder("TABLE-4", "server-1", "terminal-1");
+        orderService.addItemsToOrder(order.getId(), List.of(burger()));
+
+        mockMvc.perform(post("/api/orders/{orderId}/items/batch", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items": [{"menuItemId": "fries", "name": "Fries", "quantity": 1,
+                                            "unitPrice": 4.50, "courseType": "MAIN"}]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].modifications[0].name").value("No onions"));
+    }
+
+    private static OrderItem burger() {
+        return OrderItem.builder()
+                .menuItemId("burger")
+                .name("Burger")
+                .quantity(1)
+                .unitPrice(new BigDecimal("14.00"))
+                .courseType("MAIN")
+                .modifications(new ArrayList<>(List.of(ItemModification.builder()
+                        .modificationId("no-onions")
+                        .name("No onions")
+                        .priceAdjustment(BigDecimal.ZERO)
+                        .build())))
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.pao.order.repository;
+
+import com.pao.persistence.id.UuidV7;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order ids from {@link UuidV7} against the random UUIDv4 ids they replaced,
+ * inserted into two copies of the orders table in alternating batches. A
+ * random key splits B-tree pages all over the index and leaves them half
+ * full; a time-ordered one only ever splits the rightmost page.
+ */
+@Slf4j
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderIdIndexTest {
+
+    private static final int ORDERS = 200_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void timeOrderedIdsKeepThePrimaryKeyIndexDense() {
+        jdbcTemplate.execute("CREATE TABLE orders_uuid_v4 (LIKE orders INCLUDING ALL)");
+        jdbcTemplate.execute("CREATE TABLE orders_uuid_v7 (LIKE orders INCLUDING ALL)");
+
+        long v4Nanos = 0;
+        long v7Nanos = 0;
+        for (int inserted = 0; inserted < ORDERS; inserted += BATCH_SIZE) {
+            v4Nanos += insertBatch("orders_uuid_v4", () -> UUID.randomUUID().toString());
+            v7Nanos += insertBatch("orders_uuid_v7", UuidV7::nextId);
+        }
+
+        long v4Index = primaryKeySize("orders_uuid_v4");
+        long v7Index = primaryKeySize("orders_uuid_v7");
+        log.info("UUIDv4: {} inserts/s, primary key {} KB", ORDERS * 1_000_000_000L / v4Nanos, v4Index / 1024);
+        log.info("UUIDv7: {} inserts/s, primary key {} KB", ORDERS * 1_000_000_000L / v7Nanos, v7Index / 1024);
+
+        assertThat(v7Index).isLessThan(v4Index * 85 / 100);
+    }
+
+    private long insertBatch(String table, Supplier<String> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            rows.add(new Object[]{ids.get(), "TABLE-" + i % 40, now});
+        }
+        long start = System.nanoTime();
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, table_id, server_id, terminal_id, status, created_at) " +
+                "VALUES (?, ?, 'server-1', 'terminal-1', 'PAID', ?)", rows);
+        return System.nanoTime() - start;
+    }
+
+    private long primaryKeySize(String table) {
+        return jdbcTemplate.queryForObject("SELECT pg_relation_size(indexrelid) FROM pg_index " +
+                "WHERE indrelid = ?::regclass AND indisprimary", Long.class, table);
+    }
+}
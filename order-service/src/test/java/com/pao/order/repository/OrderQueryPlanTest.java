@@ -0,0 +1,109 @@
+package com.pao.order.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans of the order read paths on a migrated schema holding a million
+ * orders, most of them paid and synced long ago: each must be served by its
+ * index rather than a scan of the table. The statements mirror the SQL
+ * Hibernate generates for the repository queries.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderQueryPlanTest {
+
+    private static final int ORDERS = 1_000_000;
+    private static final int UNSYNCED = 1_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    private static boolean seeded;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    // One order per second; every hundredth is still open, the newest are not yet synced
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, table_id, server_id, terminal_id, status, created_at, synced, version)
+                SELECT 'order-' || lpad(n::text, 7, '0'), 'TABLE-' || n % 200, 'server-' || n % 20,
+                       'terminal-' || n % 10,
+                       CASE WHEN n % 100 = 0 THEN (ARRAY['DRAFT', 'SUBMITTED', 'IN_PROGRESS'])[1 + n / 100 % 3]
+                            ELSE 'PAID' END,
+                       timestamp '2024-01-01' + n * interval '1 second', n <= ?, 0
+                FROM generate_series(1, ?) n
+                """, ORDERS - UNSYNCED, ORDERS);
+        jdbcTemplate.execute("ANALYZE orders");
+        seeded = true;
+    }
+
+    @Test
+    void firstUnsyncedPageReadsThePartialIndexInKeysetOrder() {
+        String plan = plan("""
+                SELECT * FROM orders o WHERE o.synced = false
+                ORDER BY o.created_at, o.id LIMIT 100""");
+
+        assertThat(plan).contains("idx_orders_unsynced").doesNotContain("Seq Scan", "Sort");
+    }
+
+    @Test
+    void laterUnsyncedPagesReadThePartialIndexInKeysetOrder() {
+        String plan = plan("""
+                SELECT * FROM orders o WHERE o.synced = false
+                AND (o.created_at, o.id) > (timestamp '2024-01-12 13:38:20', 'order-0999500')
+                ORDER BY o.created_at, o.id LIMIT 100""");
+
+        // Seeks to the cursor rather than filtering every unsynced row before it
+        assertThat(plan).contains("idx_orders_unsynced", "Index Cond").doesNotContain("Seq Scan", "Sort");
+    }
+
+    @Test
+    void unsyncedIdStreamReadsOnlyThePartialIndex() {
+        String plan = plan("SELECT o.id FROM orders o WHERE o.synced = false ORDER BY o.created_at, o.id");
+
+        assertThat(plan).contains("idx_orders_unsynced").doesNotContain("Seq Scan", "Sort");
+    }
+
+    @Test
+    void findByTableIdUsesTheTableIndex() {
+        String plan = plan("""
+                SELECT * FROM orders o LEFT JOIN order_items i ON i.order_id = o.id
+                WHERE o.table_id = 'TABLE-7'""");
+
+        assertThat(plan).contains("idx_orders_table_status").doesNotContain("Seq Scan on orders");
+    }
+
+    @Test
+    void findByStatusInUsesTheStatusIndex() {
+        String plan = plan("""
+                SELECT * FROM orders o LEFT JOIN order_items i ON i.order_id = o.id
+                WHERE o.status IN ('DRAFT', 'SUBMITTED')""");
+
+        assertThat(plan).contains("idx_orders_status_created").doesNotContain("Seq Scan on orders");
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,135 @@
+package com.pao.order.repository;
+
+import com.pao.order.domain.ItemModification;
+import com.pao.order.domain.ItemStatus;
+import com.pao.order.domain.Order;
+import com.pao.order.domain.OrderItem;
+import com.pao.order.domain.OrderStatus;
+import com.pao.persistence.id.UuidV7;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every read of an order aggregate costs two statements however many orders,
+ * items and modifications it returns: the orders with their items fetch-joined,
+ * then the items' modifications in one batch.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderRepositoryQueryCountTest {
+
+    private static final int ORDERS = 5;
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private List<String> orderIds;
+
+    @BeforeEach
+    void seed() {
+        orderIds = new ArrayList<>();
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = Order.builder()
+                    .id(UuidV7.nextId())
+                    .tableId("TABLE-1")
+                    .serverId("server-1")
+                    .terminalId("terminal-1")
+                    .status(o % 2 == 0 ? OrderStatus.DRAFT : OrderStatus.SUBMITTED)
+                    .items(new ArrayList<>())
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                items.add(OrderItem.builder()
+                        .menuItemId("menu-" + i)
+                        .name("Item " + i)
+                        .quantity(1)
+                        .unitPrice(new BigDecimal("9.50"))
+                        .status(ItemStatus.PENDING)
+                        .courseType("MAIN")
+                        .modifications(new ArrayList<>(List.of(
+                                modification("No onions", BigDecimal.ZERO),
+                                modification("Extra cheese", new BigDecimal("1.00")))))
+                        .build());
+            }
+            order.addItems(items);
+            orderIds.add(orderRepository.save(order).getId());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void findByIdLoadsTheAggregateInTwoStatements() {
+        assertThat(statementsToLoad(() -> List.of(orderRepository.findById(orderIds.get(0)).orElseThrow())))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void findByTableIdLoadsEveryOrderInTwoStatements() {
+        assertThat(statementsToLoad(() -> orderRepository.findByTableId("TABLE-1"))).isEqualTo(2);
+    }
+
+    @Test
+    void findByStatusInLoadsEveryOrderInTwoStatements() {
+        assertThat(statementsToLoad(() -> orderRepository.findByStatusIn(
+                List.of(OrderStatus.DRAFT, OrderStatus.SUBMITTED)))).isEqualTo(2);
+    }
+
+    // Runs the query on an empty persistence context and walks every item and modification
+    private long statementsToLoad(Supplier<List<Order>> query) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Order> orders = query.get();
+        int modifications = 0;
+        for (Order order : orders) {
+            assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER);
+            for (OrderItem item : order.getItems()) {
+                modifications += item.getModifications().size();
+            }
+        }
+        assertThat(modifications).isEqualTo(orders.size() * ITEMS_PER_ORDER * 2);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static ItemModification modification(String name, BigDecimal priceAdjustment) {
+        return ItemModification.builder()
+                .modificationId(name.toLowerCase().replace(' ', '-'))
+                .name(name)
+                .priceAdjustment(priceAdjustment)
+                .build();
+    }
+}
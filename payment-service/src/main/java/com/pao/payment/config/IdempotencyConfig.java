@@ -0,0 +1,29 @@
+package com.pao.payment.config;
+
+import com.pao.payment.domain.Payment;
+import com.pao.payment.domain.PaymentStatus;
+import com.pao.payment.idempotency.IdempotencyCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Configuration
+public class IdempotencyConfig {
+
+    // Only settled payments are served from memory; retries of an open payment re-read its current state
+    private static final Set<PaymentStatus> SETTLED = EnumSet.of(
+            PaymentStatus.CAPTURED, PaymentStatus.DECLINED, PaymentStatus.CANCELLED,
+            PaymentStatus.REFUNDED, PaymentStatus.FAILED);
+
+    @Bean
+    public IdempotencyCache<Payment> paymentIdempotencyCache(
+            @Value("${payment.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${payment.idempotency.ttl-minutes:60}") long ttlMinutes) {
+        return new IdempotencyCache<>(maxEntries, Duration.ofMinutes(ttlMinutes),
+                payment -> SETTLED.contains(payment.getStatus()));
+    }
+}
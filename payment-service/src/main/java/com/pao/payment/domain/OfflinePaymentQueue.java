@@ -1,5 +1,6 @@
 package com.pao.payment.domain;
 
+import com.pao.persistence.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,7 +17,7 @@ import java.time.LocalDateTime;
 @Builder
 public class OfflinePaymentQueue {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     private String paymentId;
@@ -32,4 +33,8 @@ public class OfflinePaymentQueue {
 
     @Enumerated(EnumType.STRING)
     private QueueStatus status;
+
+    // Set while a worker holds the entry in PROCESSING; expired leases are claimed again
+    private String leaseOwner;
+    private LocalDateTime leasedUntil;
 }
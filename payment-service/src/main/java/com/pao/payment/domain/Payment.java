@@ -43,7 +43,8 @@ public class Payment {
     private LocalDateTime syncedAt;
     private Integer retryCount;
 
-    // Idempotency
+    // Idempotency; the unique constraint is what ultimately rejects a duplicate
+    @Column(unique = true, nullable = false)
     private String idempotencyKey;
 
     @Version
@@ -1,5 +1,6 @@
 package com.pao.payment.domain;
 
+import com.pao.persistence.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,7 +17,7 @@ import java.math.BigDecimal;
 @Builder
 public class PaymentSplit {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
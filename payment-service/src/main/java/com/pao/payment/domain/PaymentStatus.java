@@ -1,5 +1,5 @@
 package com.pao.payment.domain;
 
 public enum PaymentStatus {
-    PENDING, AUTHORIZED, CAPTURED, DECLINED, CANCELLED, REFUNDED, FAILED
+    PENDING, AUTHORIZING, AUTHORIZED, CAPTURED, DECLINED, CANCELLED, REFUNDED, FAILED
 }
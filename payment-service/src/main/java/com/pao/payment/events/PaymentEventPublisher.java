@@ -1,7 +1,11 @@
 package com.pao.payment.events;
 
+import com.pao.events.PaymentFailedEvent;
+import com.pao.events.PaymentProcessedEvent;
+import com.pao.events.PaymentRefundedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
@@ -10,22 +14,31 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class PaymentEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, SpecificRecord> kafkaTemplate;
     private static final String TOPIC = "payment-events";
 
     public void publishPaymentProcessed(PaymentProcessedEvent event) {
         log.info("Publishing PaymentProcessedEvent for payment: {}", event.getPaymentId());
-        kafkaTemplate.send(TOPIC, event.getPaymentId(), event);
-        kafkaTemplate.send("order-events", event.getOrderId(), event);
+        send(TOPIC, event.getPaymentId(), event);
+        send("order-events", event.getOrderId(), event);
     }
 
     public void publishPaymentFailed(PaymentFailedEvent event) {
         log.info("Publishing PaymentFailedEvent for payment: {}", event.getPaymentId());
-        kafkaTemplate.send(TOPIC, event.getPaymentId(), event);
+        send(TOPIC, event.getPaymentId(), event);
     }
 
     public void publishPaymentRefunded(PaymentRefundedEvent event) {
         log.info("Publishing PaymentRefundedEvent for payment: {}", event.getPaymentId());
-        kafkaTemplate.send(TOPIC, event.getPaymentId(), event);
+        send(TOPIC, event.getPaymentId(), event);
     }
-}
\ No newline at end of file
+
+    // Fire-and-forget on the caller's thread; delivery failures surface in the callback
+    private void send(String topic, String key, SpecificRecord event) {
+        kafkaTemplate.send(topic, key, event).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.error("Failed to publish {} to {} for key {}", event.getSchema().getName(), topic, key, ex);
+            }
+        });
+    }
+}
@@ -1,32 +1,36 @@
 package com.pao.payment.gateway;
 
+import com.pao.payment.idempotency.IdempotencyCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 import java.util.UUID;
 
 @Service
 @Slf4j
 public class MockPaymentGateway implements PaymentGateway {
 
-    private final Map<String, PaymentGatewayResponse> processedPayments = new HashMap<>();
+    // Like a real processor: a repeated key returns the first response, and concurrent repeats wait for it
+    private final IdempotencyCache<PaymentGatewayResponse> processedPayments =
+            new IdempotencyCache<>(100_000, Duration.ofHours(24), response -> true);
+
+    // Raise to stand in for a slow processor when comparing thread modes
+    @Value("${payment.gateway.mock-latency-ms:100}")
+    private long latencyMs;
 
     @Override
     public PaymentGatewayResponse authorize(PaymentGatewayRequest request) {
         log.info("Processing payment with idempotency key: {}", request.getIdempotencyKey());
+        return processedPayments.getOrCompute(request.getIdempotencyKey(), this::simulateAuthorization);
+    }
 
-        // Idempotency check
-        if (processedPayments.containsKey(request.getIdempotencyKey())) {
-            log.info("Payment already processed, returning cached response");
-            return processedPayments.get(request.getIdempotencyKey());
-        }
-
+    private PaymentGatewayResponse simulateAuthorization() {
         // Simulate network delay
         try {
-            Thread.sleep(100);
+            Thread.sleep(latencyMs);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -48,7 +52,6 @@ public class MockPaymentGateway implements PaymentGateway {
                     .build();
         }
 
-        processedPayments.put(request.getIdempotencyKey(), response);
         return response;
     }
 
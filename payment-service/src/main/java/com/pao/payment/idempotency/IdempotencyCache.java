@@ -0,0 +1,98 @@
+package com.pao.payment.idempotency;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Size- and TTL-bounded results per idempotency key, with in-flight dedupe:
+ * the first caller for a key computes the result and concurrent callers with
+ * the same key wait on its future instead of racing it. Results the
+ * {@code retain} predicate rejects are handed to those waiters and then
+ * dropped, so later calls see fresh state. This is only a fast path; the
+ * source of truth stays with the caller (e.g. a unique constraint).
+ */
+public class IdempotencyCache<V> {
+
+    private final Map<String, Slot<V>> slots = new ConcurrentHashMap<>();
+    // Completed slots in completion order, which is also expiry order
+    private final Queue<Slot<V>> completed = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Predicate<V> retain;
+
+    public IdempotencyCache(int maxEntries, Duration ttl, Predicate<V> retain) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.retain = retain;
+    }
+
+    public V getOrCompute(String key, Supplier<V> compute) {
+        long now = System.nanoTime();
+        Slot<V> mine = new Slot<>(key);
+        Slot<V> slot = slots.compute(key, (k, current) -> current == null || current.isExpired(now) ? mine : current);
+
+        if (slot != mine) {
+            try {
+                return slot.future.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        V value;
+        try {
+            value = compute.get();
+        } catch (RuntimeException e) {
+            slots.remove(key, mine);
+            mine.future.completeExceptionally(e);
+            throw e;
+        }
+
+        if (retain.test(value)) {
+            mine.expiresAt = System.nanoTime() + ttlNanos;
+            completed.add(mine);
+            evict();
+        } else {
+            slots.remove(key, mine);
+        }
+        mine.future.complete(value);
+        return value;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        Slot<V> oldest;
+        while ((oldest = completed.peek()) != null && (slots.size() > maxEntries || oldest.isExpired(now))) {
+            Slot<V> evicted = completed.poll();
+            if (evicted != null) {
+                slots.remove(evicted.key, evicted);
+            }
+        }
+    }
+
+    private static final class Slot<V> {
+        private final String key;
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        // In flight until a retained result sets it
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Slot(String key) {
+            this.key = key;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.pao.payment.journal;
+
+public enum FsyncPolicy {
+    // Force the mapped pages after every append: no loss on power failure, append costs a disk flush
+    ALWAYS,
+    // Force dirty pages every payment.journal.fsync-interval-ms: at most one interval lost on power failure
+    INTERVAL,
+    // Leave write-back to the OS; survives a process crash, not a power failure
+    NEVER
+}
@@ -0,0 +1,11 @@
+package com.pao.payment.journal;
+
+import com.pao.payment.domain.Payment;
+
+/**
+ * A payment that could not be written to the database. Its status is the
+ * outcome known at the time: PENDING when the gateway was not reached, or
+ * the gateway's CAPTURED / DECLINED result.
+ */
+public record JournalRecord(Payment payment, boolean queueForRetry, String failureReason) {
+}
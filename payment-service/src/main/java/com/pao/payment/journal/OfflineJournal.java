@@ -0,0 +1,280 @@
+package com.pao.payment.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Terminal-local, append-only journal for payments the database could not
+ * take. Records are appended to memory-mapped segment files as
+ * {@code [length][CRC32C][JSON]}; the length is written last, and a zero
+ * length or a CRC mismatch (a torn write) ends a segment. {@link FsyncPolicy}
+ * decides when mapped pages are forced to disk; INTERVAL forces on a thread
+ * of the journal's own, so a busy application scheduler cannot stretch the
+ * window of unforced records.
+ * <p>
+ * Only the newest segment is appended to. Replay seals it and works through
+ * the sealed segments oldest first, deleting each once all of its records
+ * are in the database.
+ */
+@Component
+@Slf4j
+public class OfflineJournal {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String QUARANTINE_DIR = "quarantine";
+    private static final int HEADER_BYTES = 8;
+    private static final int TERMINATOR_BYTES = 4;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMs;
+    private final ObjectMapper objectMapper;
+    // Not synchronized: appends run on request threads, which may be virtual
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private volatile long activeIndex;
+    private FileChannel activeChannel;
+    private volatile MappedByteBuffer active;
+    private int position;
+    private volatile boolean dirty;
+    private ScheduledExecutorService fsyncExecutor;
+
+    public OfflineJournal(@Value("${payment.journal.dir:offline-journal}") String directory,
+                          @Value("${payment.journal.segment-bytes:16777216}") int segmentBytes,
+                          @Value("${payment.journal.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+                          @Value("${payment.journal.fsync-interval-ms:50}") long fsyncIntervalMs,
+                          ObjectMapper objectMapper) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        activeIndex = segments.isEmpty() ? 1 : indexOf(segments.get(segments.size() - 1));
+        mapActive();
+        // Appends resume after the last intact record
+        position = scan(active, null);
+        if (position > 0 || segments.size() > 1) {
+            log.info("Offline journal at {} holds unreplayed payments in {} segments", directory, segments.size());
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            fsyncExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "offline-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fsyncExecutor.scheduleWithFixedDelay(this::forceIfDirty, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (fsyncExecutor != null) {
+            fsyncExecutor.shutdown();
+        }
+        appendLock.lock();
+        try {
+            active.force();
+            activeChannel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void append(JournalRecord record) {
+        byte[] payload = serialize(record);
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes + TERMINATOR_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + recordBytes + " bytes exceeds the segment size");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        appendLock.lock();
+        try {
+            if (position + recordBytes + TERMINATOR_BYTES > segmentBytes) {
+                roll();
+            }
+            active.put(position + HEADER_BYTES, payload);
+            active.putInt(position + 4, (int) crc.getValue());
+            // Overwrite whatever a torn write may have left after this record
+            active.putInt(position + recordBytes, 0);
+            active.putInt(position, payload.length);
+            position += recordBytes;
+
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                active.force();
+            } else {
+                dirty = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to offline journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void forceIfDirty() {
+        if (dirty) {
+            dirty = false;
+            try {
+                active.force();
+            } catch (RuntimeException e) {
+                // An exception would cancel the periodic task; keep forcing on the next tick
+                dirty = true;
+                log.error("Failed to force offline journal to disk", e);
+            }
+        }
+    }
+
+    // Segments no longer appended to, oldest first
+    public List<Path> sealedSegments() throws IOException {
+        long current = activeIndex;
+        return segments().stream()
+                .filter(segment -> indexOf(segment) < current)
+                .collect(Collectors.toList());
+    }
+
+    // Moves appends to a fresh segment so the records written so far can be replayed
+    public boolean sealActive() throws IOException {
+        appendLock.lock();
+        try {
+            if (position == 0) {
+                return false;
+            }
+            roll();
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Records that cannot be deserialized are moved to quarantine instead of blocking the segment
+    public List<JournalRecord> read(Path segment) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), payloads::add);
+        }
+        List<JournalRecord> records = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) {
+            try {
+                records.add(objectMapper.readValue(payload, JournalRecord.class));
+            } catch (IOException e) {
+                log.error("Unreadable offline journal record in {}, quarantining it", segment.getFileName(), e);
+                quarantine(segment, payload);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Sets a record aside that replay cannot apply, so the rest of its
+     * segment can still be replayed and the segment deleted. Quarantined
+     * records are kept as JSON lines under {@code quarantine/}, one file per
+     * segment, for manual repair.
+     */
+    public void quarantine(Path segment, JournalRecord record) throws IOException {
+        quarantine(segment, serialize(record));
+    }
+
+    private void quarantine(Path segment, byte[] payload) throws IOException {
+        Path quarantined = Files.createDirectories(directory.resolve(QUARANTINE_DIR)).resolve(segment.getFileName());
+        byte[] line = Arrays.copyOf(payload, payload.length + 1);
+        line[payload.length] = '\n';
+        Files.write(quarantined, line, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        activeChannel.close();
+        activeIndex++;
+        mapActive();
+        position = 0;
+    }
+
+    private void mapActive() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, activeIndex, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    // Returns the offset after the last intact record
+    private int scan(MappedByteBuffer segment, Consumer<byte[]> sink) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.limit()) {
+            int length = segment.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segment.limit()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.get(offset + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                log.warn("Ignoring torn offline journal record at offset {}", offset);
+                break;
+            }
+            if (sink != null) {
+                sink.accept(payload);
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && f.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private byte[] serialize(JournalRecord record) {
+        try {
+            return objectMapper.writeValueAsBytes(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize journal record", e);
+        }
+    }
+}
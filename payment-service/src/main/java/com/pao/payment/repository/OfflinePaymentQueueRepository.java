@@ -2,12 +2,49 @@ package com.pao.payment.repository;
 
 import com.pao.payment.domain.OfflinePaymentQueue;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OfflinePaymentQueueRepository extends JpaRepository<OfflinePaymentQueue, String> {
-    @Query("SELECT q FROM OfflinePaymentQueue q WHERE q.status = 'PENDING' " +
-            "AND q.nextRetryAt <= CURRENT_TIMESTAMP ORDER BY q.queuedAt")
-    List<OfflinePaymentQueue> findPendingPaymentsForRetry();
-}
\ No newline at end of file
+
+    /**
+     * Leases up to {@code limit} due entries to {@code owner}, oldest first.
+     * SKIP LOCKED lets several instances claim concurrently without waiting on
+     * or double-claiming each other's rows; entries whose lease ran out (their
+     * worker died) are due again.
+     */
+    @Query(value = "UPDATE offline_payment_queue SET status = 'PROCESSING', lease_owner = :owner, leased_until = :leasedUntil " +
+            "WHERE id IN (SELECT id FROM offline_payment_queue " +
+            "WHERE (status = 'PENDING' AND next_retry_at <= :now) OR (status = 'PROCESSING' AND leased_until < :now) " +
+            "ORDER BY queued_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id", nativeQuery = true)
+    List<String> claimDue(@Param("owner") String owner,
+                          @Param("now") LocalDateTime now,
+                          @Param("leasedUntil") LocalDateTime leasedUntil,
+                          @Param("limit") int limit);
+
+    // The updates below are guarded on the lease, so a worker whose lease expired and was re-claimed changes nothing
+
+    @Modifying
+    @Query("UPDATE OfflinePaymentQueue q SET q.retryCount = q.retryCount + 1, q.lastRetryAt = :attemptedAt " +
+            "WHERE q.id = :id AND q.leaseOwner = :owner AND q.status = com.pao.payment.domain.QueueStatus.PROCESSING")
+    int recordAttempt(@Param("id") String id, @Param("owner") String owner,
+                      @Param("attemptedAt") LocalDateTime attemptedAt);
+
+    @Modifying
+    @Query("UPDATE OfflinePaymentQueue q SET q.status = com.pao.payment.domain.QueueStatus.PENDING, " +
+            "q.nextRetryAt = :nextRetryAt, q.leaseOwner = null, q.leasedUntil = null " +
+            "WHERE q.id = :id AND q.leaseOwner = :owner")
+    int releaseLease(@Param("id") String id, @Param("owner") String owner,
+                     @Param("nextRetryAt") LocalDateTime nextRetryAt);
+
+    @Modifying
+    @Query("UPDATE OfflinePaymentQueue q SET q.status = com.pao.payment.domain.QueueStatus.COMPLETED, " +
+            "q.leaseOwner = null, q.leasedUntil = null " +
+            "WHERE q.id = :id AND q.leaseOwner = :owner")
+    int completeLease(@Param("id") String id, @Param("owner") String owner);
+}
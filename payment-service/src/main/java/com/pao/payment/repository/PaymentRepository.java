@@ -1,14 +1,17 @@
 package com.pao.payment.repository;
 
 import com.pao.payment.domain.Payment;
+import com.pao.payment.domain.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, String> {
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
     List<Payment> findByOrderId(String orderId);
+    List<Payment> findByStatusAndCreatedAtBefore(PaymentStatus status, LocalDateTime createdBefore);
 
     @Query("SELECT p FROM Payment p WHERE p.synced = false ORDER BY p.createdAt")
     List<Payment> findUnsyncedPayments();
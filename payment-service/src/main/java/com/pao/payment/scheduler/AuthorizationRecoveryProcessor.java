@@ -0,0 +1,23 @@
+package com.pao.payment.scheduler;
+
+import com.pao.payment.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuthorizationRecoveryProcessor {
+
+    private final PaymentService paymentService;
+
+    @Scheduled(fixedDelayString = "${payment.authorization.recovery-interval-ms:60000}")
+    public void recoverStaleAuthorizations() {
+        int recovered = paymentService.recoverStaleAuthorizations();
+        if (recovered > 0) {
+            log.info("Queued {} payments left in AUTHORIZING for offline processing", recovered);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.pao.payment.scheduler;
+
+import com.pao.payment.journal.JournalRecord;
+import com.pao.payment.journal.OfflineJournal;
+import com.pao.payment.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Moves journaled payments into the database once it is reachable. A
+ * segment is deleted only after every record in it was applied; replaying
+ * a segment again after a crash is harmless.
+ * <p>
+ * An unreachable database defers the whole segment to the next run. Any
+ * other failure is specific to the record, which is quarantined so the
+ * records behind it still get replayed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JournalReplayProcessor {
+
+    private final OfflineJournal journal;
+    private final PaymentService paymentService;
+
+    @Scheduled(fixedDelayString = "${payment.journal.replay-interval-ms:5000}")
+    public void replayJournal() {
+        try {
+            // The active segment is sealed only once older ones went through, so an outage does not pile up segments
+            if (replay(journal.sealedSegments()) && journal.sealActive()) {
+                replay(journal.sealedSegments());
+            }
+        } catch (IOException e) {
+            log.error("Failed to read offline journal", e);
+        }
+    }
+
+    private boolean replay(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            List<JournalRecord> records = journal.read(segment);
+            int quarantined = 0;
+            for (JournalRecord record : records) {
+                try {
+                    paymentService.replayJournaled(record);
+                } catch (DataAccessResourceFailureException | TransientDataAccessException
+                         | RecoverableDataAccessException | TransactionException e) {
+                    log.warn("Database still unavailable, deferring offline journal replay: {}", e.getMessage());
+                    return false;
+                } catch (RuntimeException e) {
+                    log.error("Failed to replay journaled payment {}, quarantining it", record.payment().getId(), e);
+                    journal.quarantine(segment, record);
+                    quarantined++;
+                }
+            }
+            journal.delete(segment);
+            log.info("Replayed {} journaled payments from {} ({} quarantined)",
+                    records.size() - quarantined, segment.getFileName(), quarantined);
+        }
+        return true;
+    }
+}
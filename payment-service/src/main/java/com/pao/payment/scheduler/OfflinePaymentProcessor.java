@@ -1,21 +1,87 @@
 package com.pao.payment.scheduler;
 
 import com.pao.payment.service.PaymentService;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the offline payment queue with a bounded worker pool. Each tick
+ * leases at most one batch of due entries (SKIP LOCKED, so other instances
+ * claim different rows), sized to the workers that are idle, and hands it
+ * to the pool without waiting. The scheduler thread never blocks on gateway
+ * calls, the pool size caps concurrent gateway calls from this instance,
+ * and no leased entry sits in a queue while its lease runs down.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OfflinePaymentProcessor {
 
     private final PaymentService paymentService;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    public OfflinePaymentProcessor(PaymentService paymentService,
+                                   @Value("${payment.offline.workers:8}") int workerCount,
+                                   @Value("${payment.offline.batch-size:16}") int batchSize,
+                                   @Value("${payment.offline.lease-seconds:300}") long leaseSeconds) {
+        this.paymentService = paymentService;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                r -> new Thread(r, "offline-payment-" + threads.incrementAndGet()));
+    }
 
-    @Scheduled(fixedDelay = 60000) // Every minute
+    @Scheduled(fixedDelayString = "${payment.offline.poll-interval-ms:1000}")
     public void processOfflinePayments() {
-        log.debug("Running offline payment processor");
-        paymentService.processOfflineQueue();
+        int idle = workerCount - inFlight.get();
+        if (idle <= 0) {
+            return;
+        }
+        List<String> claimed = paymentService.claimOfflineBatch(leaseOwner, Math.min(batchSize, idle), leaseSeconds);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        log.info("Processing {} offline payments", claimed.size());
+
+        for (String queueId : claimed) {
+            inFlight.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    process(queueId);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Unfinished leases expire and are claimed again
+        workers.shutdownNow();
+    }
+
+    private void process(String queueId) {
+        try {
+            paymentService.processOfflineEntry(queueId, leaseOwner);
+        } catch (Exception e) {
+            log.error("Error processing offline queue entry: {}", queueId, e);
+            paymentService.releaseOfflineEntry(queueId, leaseOwner);
+        }
     }
-}
\ No newline at end of file
+}
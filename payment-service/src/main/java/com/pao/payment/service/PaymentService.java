@@ -1,22 +1,35 @@
 package com.pao.payment.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pao.events.PaymentFailedEvent;
+import com.pao.events.PaymentProcessedEvent;
 import com.pao.payment.domain.*;
 import com.pao.payment.events.PaymentEventPublisher;
-import com.pao.payment.events.PaymentFailedEvent;
-import com.pao.payment.events.PaymentProcessedEvent;
 import com.pao.payment.gateway.PaymentGateway;
+import com.pao.payment.idempotency.IdempotencyCache;
+import com.pao.payment.journal.JournalRecord;
+import com.pao.payment.journal.OfflineJournal;
 import com.pao.payment.gateway.PaymentGatewayRequest;
 import com.pao.payment.gateway.PaymentGatewayResponse;
 import com.pao.payment.repository.OfflinePaymentQueueRepository;
 import com.pao.payment.repository.PaymentRepository;
+import com.pao.persistence.id.UuidV7;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -28,23 +41,41 @@ public class PaymentService {
     private final PaymentGateway paymentGateway;
     private final PaymentEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
-
-    @Transactional
+    private final TransactionTemplate transactionTemplate;
+    private final OfflineJournal offlineJournal;
+    private final IdempotencyCache<Payment> idempotencyCache;
+
+    @Value("${payment.authorization.stale-after-seconds:300}")
+    private long authorizationStaleAfterSeconds;
+
+    /**
+     * Entry point for terminal payment requests. Settled results are served
+     * from the idempotency cache, and concurrent retries with the same key
+     * wait for the first request's result instead of racing it.
+     */
     public Payment processPayment(String orderId, String terminalId,
                                   BigDecimal amount, BigDecimal tipAmount,
                                   PaymentMethod method, String idempotencyKey) {
+        return idempotencyCache.getOrCompute(idempotencyKey,
+                () -> authorize(orderId, terminalId, amount, tipAmount, method, idempotencyKey));
+    }
 
-        // Check idempotency
-        Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
-        if (existing.isPresent()) {
-            log.info("Payment already processed with idempotency key: {}", idempotencyKey);
-            return existing.get();
-        }
-
-        String paymentId = UUID.randomUUID().toString();
+    /**
+     * Authorizes a payment without holding a connection across the gateway
+     * call: a short transaction records the payment as AUTHORIZING, the
+     * gateway is called outside any transaction, and a second short
+     * transaction records the outcome. A crash in between leaves the payment
+     * AUTHORIZING; {@link #recoverStaleAuthorizations()} hands it to the
+     * offline queue, which retries with the same idempotency key.
+     */
+    private Payment authorize(String orderId, String terminalId,
+                              BigDecimal amount, BigDecimal tipAmount,
+                              PaymentMethod method, String idempotencyKey) {
+
+        String paymentId = UuidV7.nextId();
         BigDecimal totalAmount = amount.add(tipAmount);
 
-        Payment payment = Payment.builder()
+        Payment authorizing = Payment.builder()
                 .id(paymentId)
                 .orderId(orderId)
                 .terminalId(terminalId)
@@ -52,16 +83,42 @@ public class PaymentService {
                 .tipAmount(tipAmount)
                 .totalAmount(totalAmount)
                 .method(method)
-                .status(PaymentStatus.PENDING)
+                .status(PaymentStatus.AUTHORIZING)
                 .createdAt(LocalDateTime.now())
                 .synced(false)
                 .retryCount(0)
                 .idempotencyKey(idempotencyKey)
                 .build();
 
-        payment = paymentRepository.save(payment);
+        Payment payment;
+        try {
+            payment = transactionTemplate.execute(status -> {
+                // Check idempotency
+                Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
+                if (existing.isPresent()) {
+                    log.info("Payment already processed with idempotency key: {}", idempotencyKey);
+                    return loaded(existing.get());
+                }
+                return paymentRepository.save(authorizing);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost the insert race on the unique idempotency key, e.g. to another instance
+            log.info("Payment already recorded with idempotency key: {}", idempotencyKey);
+            return transactionTemplate.execute(status -> loaded(paymentRepository.findByIdempotencyKey(idempotencyKey)
+                    .orElseThrow(() -> e)));
+        } catch (DataAccessException | TransactionException e) {
+            // Without the database the idempotency check cannot run, so authorization waits for the replay
+            log.error("Database unavailable, journaling payment {} for replay", paymentId, e);
+            authorizing.setStatus(PaymentStatus.PENDING);
+            offlineJournal.append(new JournalRecord(authorizing, true, null));
+            return authorizing;
+        }
+        if (!payment.getId().equals(paymentId)) {
+            return payment;
+        }
 
-        // Attempt to process payment
+        // Attempt to process payment; no transaction or connection is held here
+        PaymentGatewayResponse response;
         try {
             PaymentGatewayRequest request = PaymentGatewayRequest.builder()
                     .idempotencyKey(idempotencyKey)
@@ -70,140 +127,300 @@ public class PaymentService {
                     .metadata(Map.of("orderId", orderId, "terminalId", terminalId))
                     .build();
 
-            PaymentGatewayResponse response = paymentGateway.authorize(request);
-
-            if (response.isSuccess()) {
-                payment.setStatus(PaymentStatus.CAPTURED);
-                payment.setTransactionId(response.getTransactionId());
-                payment.setAuthorizationCode(response.getAuthorizationCode());
-                payment.setProcessedAt(LocalDateTime.now());
-                payment.setSynced(true);
-                payment.setSyncedAt(LocalDateTime.now());
-
-                payment = paymentRepository.save(payment);
-
-                eventPublisher.publishPaymentProcessed(PaymentProcessedEvent.builder()
-                        .paymentId(paymentId)
-                        .orderId(orderId)
-                        .amount(amount)
-                        .tipAmount(tipAmount)
-                        .paymentMethod(method.name())
-                        .transactionId(response.getTransactionId())
-                        .timestamp(LocalDateTime.now())
-                        .build());
-
-            } else {
-                payment.setStatus(PaymentStatus.DECLINED);
-                payment = paymentRepository.save(payment);
-
-                eventPublisher.publishPaymentFailed(PaymentFailedEvent.builder()
-                        .paymentId(paymentId)
-                        .orderId(orderId)
-                        .reason(response.getErrorMessage())
-                        .timestamp(LocalDateTime.now())
-                        .build());
-            }
-
+            response = paymentGateway.authorize(request);
         } catch (Exception e) {
             log.error("Payment processing failed, queueing for offline processing", e);
-            payment.setStatus(PaymentStatus.PENDING);
-            payment = paymentRepository.save(payment);
+            return finalizeAuthorization(payment, current -> current.setStatus(PaymentStatus.PENDING), true, null)
+                    .payment();
+        }
 
-            queueOfflinePayment(payment);
+        Finalized finalized;
+        if (response.isSuccess()) {
+            finalized = finalizeAuthorization(payment, current -> {
+                current.setStatus(PaymentStatus.CAPTURED);
+                current.setTransactionId(response.getTransactionId());
+                current.setAuthorizationCode(response.getAuthorizationCode());
+                current.setProcessedAt(LocalDateTime.now());
+                current.setSynced(true);
+                current.setSyncedAt(LocalDateTime.now());
+            }, false, null);
+        } else {
+            finalized = finalizeAuthorization(payment, current -> current.setStatus(PaymentStatus.DECLINED),
+                    false, response.getErrorMessage());
+        }
+        if (!finalized.applied()) {
+            return finalized.payment();
         }
 
-        return payment;
+        // Published after the outcome commits, and only by the call that recorded it
+        if (response.isSuccess()) {
+            eventPublisher.publishPaymentProcessed(PaymentProcessedEvent.newBuilder()
+                    .setPaymentId(paymentId)
+                    .setOrderId(orderId)
+                    .setAmount(money(amount))
+                    .setTipAmount(money(tipAmount))
+                    .setPaymentMethod(method.name())
+                    .setTransactionId(response.getTransactionId())
+                    .setTimestamp(LocalDateTime.now())
+                    .build());
+        } else {
+            eventPublisher.publishPaymentFailed(PaymentFailedEvent.newBuilder()
+                    .setPaymentId(paymentId)
+                    .setOrderId(orderId)
+                    .setReason(response.getErrorMessage())
+                    .setTimestamp(LocalDateTime.now())
+                    .build());
+        }
+
+        return finalized.payment();
     }
 
-    private void queueOfflinePayment(Payment payment) {
+    /**
+     * Applies the gateway outcome if the payment is still AUTHORIZING. If
+     * recovery already handed it to the offline queue, the stored payment is
+     * returned unchanged and the queue finishes it. If the database is down,
+     * the outcome goes to the offline journal and is recorded on replay.
+     */
+    private Finalized finalizeAuthorization(Payment payment, Consumer<Payment> outcome,
+                                            boolean queueForRetry, String failureReason) {
+        String paymentId = payment.getId();
         try {
-            String paymentData = objectMapper.writeValueAsString(payment);
-
-            OfflinePaymentQueue queueEntry = OfflinePaymentQueue.builder()
-                    .paymentId(payment.getId())
-                    .orderId(payment.getOrderId())
-                    .paymentData(paymentData)
-                    .queuedAt(LocalDateTime.now())
-                    .retryCount(0)
-                    .nextRetryAt(LocalDateTime.now().plusMinutes(5))
-                    .status(QueueStatus.PENDING)
-                    .build();
+            return transactionTemplate.execute(status -> {
+                Payment current = paymentRepository.findById(paymentId)
+                        .orElseThrow(() -> new RuntimeException("Payment not found"));
+                if (current.getStatus() != PaymentStatus.AUTHORIZING) {
+                    return new Finalized(loaded(current), false);
+                }
+                outcome.accept(current);
+                current = paymentRepository.save(current);
+                if (queueForRetry) {
+                    queueOfflinePayment(current);
+                }
+                return new Finalized(loaded(current), true);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Payment {} was recovered while its authorization was in flight", paymentId);
+            return new Finalized(transactionTemplate.execute(status -> loaded(paymentRepository.findById(paymentId)
+                    .orElseThrow(() -> new RuntimeException("Payment not found")))), false);
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Database unavailable, journaling outcome of payment {}", paymentId, e);
+            outcome.accept(payment);
+            offlineJournal.append(new JournalRecord(payment, queueForRetry, failureReason));
+            return new Finalized(payment, false);
+        }
+    }
 
-            queueRepository.save(queueEntry);
-            log.info("Payment queued for offline processing: {}", payment.getId());
+    /**
+     * Writes a journaled payment to the database. Idempotent, so a segment
+     * can be replayed again after a crash: a final outcome already stored is
+     * kept, and a journaled request whose idempotency key was meanwhile
+     * recorded under another payment is dropped. The payment event is
+     * published here, once the outcome is stored.
+     */
+    public void replayJournaled(JournalRecord record) {
+        Payment journaled = record.payment();
+        PaymentStatus applied = transactionTemplate.execute(status -> {
+            Optional<Payment> stored = paymentRepository.findById(journaled.getId());
+            if (stored.isEmpty()) {
+                if (paymentRepository.findByIdempotencyKey(journaled.getIdempotencyKey()).isPresent()) {
+                    return null;
+                }
+                journaled.setVersion(null);
+                Payment saved = paymentRepository.save(journaled);
+                if (record.queueForRetry()) {
+                    queueOfflinePayment(saved);
+                }
+                return saved.getStatus();
+            }
 
-        } catch (Exception e) {
-            log.error("Failed to queue offline payment", e);
+            Payment current = stored.get();
+            boolean open = current.getStatus() == PaymentStatus.AUTHORIZING || current.getStatus() == PaymentStatus.PENDING;
+            if (!open || journaled.getStatus() == current.getStatus()) {
+                return null;
+            }
+            if (journaled.getStatus() == PaymentStatus.PENDING) {
+                // Only an AUTHORIZING payment gets here; hand it to the offline queue
+                current.setStatus(PaymentStatus.PENDING);
+                queueOfflinePayment(paymentRepository.save(current));
+                return PaymentStatus.PENDING;
+            }
+            current.setStatus(journaled.getStatus());
+            current.setTransactionId(journaled.getTransactionId());
+            current.setAuthorizationCode(journaled.getAuthorizationCode());
+            current.setProcessedAt(journaled.getProcessedAt());
+            current.setSynced(journaled.isSynced());
+            current.setSyncedAt(journaled.getSyncedAt());
+            paymentRepository.save(current);
+            return journaled.getStatus();
+        });
+
+        if (applied == PaymentStatus.CAPTURED) {
+            eventPublisher.publishPaymentProcessed(PaymentProcessedEvent.newBuilder()
+                    .setPaymentId(journaled.getId())
+                    .setOrderId(journaled.getOrderId())
+                    .setAmount(money(journaled.getAmount()))
+                    .setTipAmount(money(journaled.getTipAmount()))
+                    .setPaymentMethod(journaled.getMethod().name())
+                    .setTransactionId(journaled.getTransactionId())
+                    .setTimestamp(LocalDateTime.now())
+                    .build());
+        } else if (applied == PaymentStatus.DECLINED) {
+            eventPublisher.publishPaymentFailed(PaymentFailedEvent.newBuilder()
+                    .setPaymentId(journaled.getId())
+                    .setOrderId(journaled.getOrderId())
+                    .setReason(record.failureReason())
+                    .setTimestamp(LocalDateTime.now())
+                    .build());
         }
     }
 
+    /**
+     * Hands payments stuck in AUTHORIZING (the process died mid-call) to the
+     * offline queue. The threshold is well above any gateway timeout, so a
+     * call that is merely slow is not raced.
+     */
     @Transactional
-    public void processOfflineQueue() {
-        List<OfflinePaymentQueue> pendingPayments = queueRepository.findPendingPaymentsForRetry();
+    public int recoverStaleAuthorizations() {
+        List<Payment> stale = paymentRepository.findByStatusAndCreatedAtBefore(
+                PaymentStatus.AUTHORIZING, LocalDateTime.now().minusSeconds(authorizationStaleAfterSeconds));
 
-        log.info("Processing {} offline payments", pendingPayments.size());
+        for (Payment payment : stale) {
+            log.warn("Recovering payment {} left in AUTHORIZING", payment.getId());
+            payment.setStatus(PaymentStatus.PENDING);
+            queueOfflinePayment(paymentRepository.save(payment));
+        }
+        return stale.size();
+    }
 
-        for (OfflinePaymentQueue queueEntry : pendingPayments) {
-            try {
-                Payment payment = paymentRepository.findById(queueEntry.getPaymentId())
-                        .orElseThrow(() -> new RuntimeException("Payment not found"));
+    // Splits are lazy and the payment is serialized after the transaction closes
+    private static Payment loaded(Payment payment) {
+        Hibernate.initialize(payment.getSplits());
+        return payment;
+    }
 
-                if (payment.getStatus() == PaymentStatus.CAPTURED) {
-                    queueEntry.setStatus(QueueStatus.COMPLETED);
-                    queueRepository.save(queueEntry);
-                    continue;
-                }
+    // Throws rather than logs, so a payment is never left PENDING without a queue entry
+    private void queueOfflinePayment(Payment payment) {
+        String paymentData = objectMapper.valueToTree(payment).toString();
 
-                queueEntry.setStatus(QueueStatus.PROCESSING);
-                queueEntry.setRetryCount(queueEntry.getRetryCount() + 1);
-                queueEntry.setLastRetryAt(LocalDateTime.now());
-                queueRepository.save(queueEntry);
-
-                PaymentGatewayRequest request = PaymentGatewayRequest.builder()
-                        .idempotencyKey(payment.getIdempotencyKey())
-                        .amount(payment.getTotalAmount())
-                        .paymentMethod(payment.getMethod().name())
-                        .build();
-
-                PaymentGatewayResponse response = paymentGateway.authorize(request);
-
-                if (response.isSuccess()) {
-                    payment.setStatus(PaymentStatus.CAPTURED);
-                    payment.setTransactionId(response.getTransactionId());
-                    payment.setAuthorizationCode(response.getAuthorizationCode());
-                    payment.setProcessedAt(LocalDateTime.now());
-                    payment.setSynced(true);
-                    payment.setSyncedAt(LocalDateTime.now());
-                    paymentRepository.save(payment);
-
-                    queueEntry.setStatus(QueueStatus.COMPLETED);
-                    queueRepository.save(queueEntry);
-
-                    eventPublisher.publishPaymentProcessed(PaymentProcessedEvent.builder()
-                            .paymentId(payment.getId())
-                            .orderId(payment.getOrderId())
-                            .amount(payment.getAmount())
-                            .tipAmount(payment.getTipAmount())
-                            .paymentMethod(payment.getMethod().name())
-                            .transactionId(response.getTransactionId())
-                            .timestamp(LocalDateTime.now())
-                            .build());
-
-                } else {
-                    queueEntry.setStatus(QueueStatus.PENDING);
-                    queueEntry.setNextRetryAt(calculateNextRetry(queueEntry.getRetryCount()));
-                    queueRepository.save(queueEntry);
-                }
+        OfflinePaymentQueue queueEntry = OfflinePaymentQueue.builder()
+                .paymentId(payment.getId())
+                .orderId(payment.getOrderId())
+                .paymentData(paymentData)
+                .queuedAt(LocalDateTime.now())
+                .retryCount(0)
+                .nextRetryAt(LocalDateTime.now().plusMinutes(5))
+                .status(QueueStatus.PENDING)
+                .build();
+
+        queueRepository.save(queueEntry);
+        log.info("Payment queued for offline processing: {}", payment.getId());
+    }
+
+    @Transactional
+    public List<String> claimOfflineBatch(String leaseOwner, int limit, long leaseSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        return queueRepository.claimDue(leaseOwner, now, now.plusSeconds(leaseSeconds), limit);
+    }
+
+    /**
+     * Retries one leased queue entry. Like processPayment, the gateway call
+     * runs between two short transactions. Every queue update is guarded on
+     * the lease, and the payment's version check keeps a worker whose lease
+     * expired from recording the outcome twice.
+     */
+    public void processOfflineEntry(String queueId, String leaseOwner) {
+        Payment payment = transactionTemplate.execute(status -> {
+            OfflinePaymentQueue queueEntry = queueRepository.findById(queueId)
+                    .orElseThrow(() -> new RuntimeException("Queue entry not found"));
+            if (queueEntry.getStatus() != QueueStatus.PROCESSING || !leaseOwner.equals(queueEntry.getLeaseOwner())) {
+                return null;
+            }
+
+            Payment current = paymentRepository.findById(queueEntry.getPaymentId())
+                    .orElseThrow(() -> new RuntimeException("Payment not found"));
+            if (current.getStatus() == PaymentStatus.CAPTURED) {
+                queueRepository.completeLease(queueId, leaseOwner);
+                return null;
+            }
+
+            if (queueRepository.recordAttempt(queueId, leaseOwner, LocalDateTime.now()) == 0) {
+                log.info("Lease on offline queue entry {} was lost", queueId);
+                return null;
+            }
+            return current;
+        });
+        if (payment == null) {
+            return;
+        }
+
+        PaymentGatewayResponse response;
+        try {
+            PaymentGatewayRequest request = PaymentGatewayRequest.builder()
+                    .idempotencyKey(payment.getIdempotencyKey())
+                    .amount(payment.getTotalAmount())
+                    .paymentMethod(payment.getMethod().name())
+                    .build();
 
-            } catch (Exception e) {
-                log.error("Error processing offline payment: {}", queueEntry.getPaymentId(), e);
-                queueEntry.setStatus(QueueStatus.PENDING);
-                queueEntry.setNextRetryAt(calculateNextRetry(queueEntry.getRetryCount()));
-                queueRepository.save(queueEntry);
+            response = paymentGateway.authorize(request);
+        } catch (Exception e) {
+            log.error("Error processing offline payment: {}", payment.getId(), e);
+            releaseOfflineEntry(queueId, leaseOwner);
+            return;
+        }
+
+        if (!response.isSuccess()) {
+            releaseOfflineEntry(queueId, leaseOwner);
+            return;
+        }
+
+        Boolean captured = transactionTemplate.execute(status -> {
+            Payment current = paymentRepository.findById(payment.getId())
+                    .orElseThrow(() -> new RuntimeException("Payment not found"));
+            boolean capturedHere = current.getStatus() != PaymentStatus.CAPTURED;
+            if (capturedHere) {
+                current.setStatus(PaymentStatus.CAPTURED);
+                current.setTransactionId(response.getTransactionId());
+                current.setAuthorizationCode(response.getAuthorizationCode());
+                current.setProcessedAt(LocalDateTime.now());
+                current.setSynced(true);
+                current.setSyncedAt(LocalDateTime.now());
+                paymentRepository.save(current);
             }
+            // The capture stands either way; the entry is finished by whoever holds the lease now
+            queueRepository.completeLease(queueId, leaseOwner);
+            return capturedHere;
+        });
+
+        if (Boolean.TRUE.equals(captured)) {
+            eventPublisher.publishPaymentProcessed(PaymentProcessedEvent.newBuilder()
+                    .setPaymentId(payment.getId())
+                    .setOrderId(payment.getOrderId())
+                    .setAmount(money(payment.getAmount()))
+                    .setTipAmount(money(payment.getTipAmount()))
+                    .setPaymentMethod(payment.getMethod().name())
+                    .setTransactionId(response.getTransactionId())
+                    .setTimestamp(LocalDateTime.now())
+                    .build());
         }
     }
 
+    // Returns the entry to PENDING with backoff and drops the lease, if it is still ours
+    public void releaseOfflineEntry(String queueId, String leaseOwner) {
+        transactionTemplate.executeWithoutResult(status -> queueRepository.findById(queueId).ifPresent(queueEntry -> {
+            if (queueRepository.releaseLease(queueId, leaseOwner, calculateNextRetry(queueEntry.getRetryCount())) == 0) {
+                log.info("Lease on offline queue entry {} was lost, leaving it to its new owner", queueId);
+            }
+        }));
+    }
+
+    // Event decimals are fixed at scale 2
+    private static BigDecimal money(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    private record Finalized(Payment payment, boolean applied) {
+    }
+
     private LocalDateTime calculateNextRetry(int retryCount) {
         int[] backoffMinutes = {5, 15, 30, 60, 120};
         int index = Math.min(retryCount, backoffMinutes.length - 1);
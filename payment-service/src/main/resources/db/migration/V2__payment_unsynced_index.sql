@@ -0,0 +1,3 @@
+-- Only unsynced rows are indexed, in findUnsyncedPayments order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_unsynced ON payments(created_at) WHERE synced = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_payments_synced;
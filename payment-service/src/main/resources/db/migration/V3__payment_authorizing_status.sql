@@ -0,0 +1,10 @@
+-- Card payments are AUTHORIZING while the gateway call runs outside any transaction.
+-- Databases baselined from Hibernate carry its generated constraint instead of the
+-- named one from V1, so both are replaced.
+ALTER TABLE payments DROP CONSTRAINT IF EXISTS chk_payment_status;
+ALTER TABLE payments DROP CONSTRAINT IF EXISTS payments_status_check;
+ALTER TABLE payments ADD CONSTRAINT chk_payment_status
+    CHECK (status IN ('PENDING', 'AUTHORIZING', 'AUTHORIZED', 'CAPTURED', 'DECLINED', 'CANCELLED', 'REFUNDED', 'FAILED'));
+
+-- Recovery scans for payments stuck in AUTHORIZING
+CREATE INDEX idx_payments_authorizing ON payments(created_at) WHERE status = 'AUTHORIZING';
@@ -0,0 +1,6 @@
+-- Workers lease queue entries so several payment-service instances can drain the queue
+ALTER TABLE offline_payment_queue ADD COLUMN lease_owner VARCHAR(255);
+ALTER TABLE offline_payment_queue ADD COLUMN leased_until TIMESTAMP;
+
+-- Claim scans open entries oldest first
+CREATE INDEX idx_offline_queue_open ON offline_payment_queue(queued_at) WHERE status IN ('PENDING', 'PROCESSING');
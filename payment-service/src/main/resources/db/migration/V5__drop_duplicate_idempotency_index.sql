@@ -0,0 +1,2 @@
+-- The UNIQUE constraint on idempotency_key already has its own index
+DROP INDEX CONCURRENTLY IF EXISTS idx_payments_idempotency;
@@ -0,0 +1,20 @@
+-- Replayed payments are deduplicated on idempotency_key. V1 declares it unique,
+-- but databases baselined from Hibernate never had the constraint, and V5 left
+-- them without any index on the column. Any unique index on the column alone
+-- already enforces it; otherwise the constraint is added under V1's name. Keys
+-- that are already duplicated fail the migration rather than being guessed at.
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_index i
+        JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+        WHERE i.indrelid = 'payments'::regclass
+          AND i.indisunique
+          AND i.indnkeyatts = 1
+          AND i.indpred IS NULL
+          AND a.attname = 'idempotency_key'
+    ) THEN
+        ALTER TABLE payments ADD CONSTRAINT payments_idempotency_key_key UNIQUE (idempotency_key);
+    END IF;
+END $$;
@@ -0,0 +1,30 @@
+package com.pao.payment;
+
+import com.pao.payment.events.PaymentEventPublisher;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * The whole service against a real Postgres, migrated by Flyway. Kafka is left
+ * out: outgoing events go to a mock publisher.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.admin.auto-create=false",
+        "spring.jpa.show-sql=false",
+        "payment.journal.dir=${java.io.tmpdir}/payment-test-journal",
+        "pos.schema-registry.dir=${java.io.tmpdir}/payment-test-schema-registry"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @MockBean
+    protected PaymentEventPublisher eventPublisher;
+}
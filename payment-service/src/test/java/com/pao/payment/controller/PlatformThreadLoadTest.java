@@ -0,0 +1,23 @@
+package com.pao.payment.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The default mode: each request holds a Tomcat worker thread for the whole
+ * gateway call, so the burst is served in rounds of the worker pool.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadLoadTest extends ThreadModeLoadTest {
+
+    @Test
+    void paymentsQueueBehindTheWorkerPool() throws Exception {
+        Burst burst = burst();
+
+        assertThat(burst.gatewayCallsOnVirtualThreads()).isZero();
+        assertThat(burst.elapsedMs()).isGreaterThanOrEqualTo(workerBoundMs());
+        assertThat(burst.p99Ms()).isGreaterThanOrEqualTo(workerBoundMs() - GATEWAY_LATENCY_MS);
+    }
+}
@@ -0,0 +1,146 @@
+package com.pao.payment.controller;
+
+import com.pao.payment.events.PaymentEventPublisher;
+import com.pao.payment.gateway.PaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * A burst of card payments against {@code POST /api/payments} on a running
+ * service, with MockPaymentGateway slowed down to stand in for a remote
+ * processor and the real Hikari pool. Subclasses run it with
+ * {@code spring.threads.virtual.enabled} off and on, and log payments/sec and
+ * p99 for the comparison.
+ *
+ * <p>Tomcat's worker pool is cut from 200 to {@value #TOMCAT_THREADS} so a
+ * burst of {@value #PAYMENTS} queues behind it the way a thousand would behind
+ * the default; the setting does not apply on virtual threads, where the
+ * connection pool is what bounds the burst.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.kafka.admin.auto-create=false",
+        "spring.jpa.show-sql=false",
+        "server.tomcat.threads.max=" + ThreadModeLoadTest.TOMCAT_THREADS,
+        "payment.gateway.mock-latency-ms=" + ThreadModeLoadTest.GATEWAY_LATENCY_MS,
+        "payment.journal.dir=${java.io.tmpdir}/payment-test-journal",
+        "pos.schema-registry.dir=${java.io.tmpdir}/payment-test-schema-registry"
+})
+@Testcontainers(disabledWithoutDocker = true)
+abstract class ThreadModeLoadTest {
+
+    static final int TOMCAT_THREADS = 8;
+    static final long GATEWAY_LATENCY_MS = 1000;
+    static final int PAYMENTS = 80;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @MockBean
+    PaymentEventPublisher eventPublisher;
+
+    @SpyBean
+    PaymentGateway paymentGateway;
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /** A burst queued behind the worker pool takes at least this many sequential gateway rounds. */
+    static long workerBoundMs() {
+        return (long) Math.ceil((double) PAYMENTS / TOMCAT_THREADS) * GATEWAY_LATENCY_MS;
+    }
+
+    /**
+     * Sends {@link #PAYMENTS} payments at once after a warm-up round, so
+     * first-use costs stay out of the numbers.
+     */
+    Burst burst() throws Exception {
+        AtomicInteger onVirtualThreads = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (Thread.currentThread().isVirtual()) {
+                onVirtualThreads.incrementAndGet();
+            }
+            return invocation.callRealMethod();
+        }).when(paymentGateway).authorize(any());
+
+        send(TOMCAT_THREADS, "warm-up-");
+        onVirtualThreads.set(0);
+
+        long started = System.nanoTime();
+        long[] latenciesNanos = send(PAYMENTS, "terminal-");
+        long elapsedNanos = System.nanoTime() - started;
+
+        Arrays.sort(latenciesNanos);
+        Burst burst = new Burst(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), PAYMENTS * 1e9 / elapsedNanos,
+                TimeUnit.NANOSECONDS.toMillis(latenciesNanos[(int) Math.ceil(PAYMENTS * 0.99) - 1]),
+                onVirtualThreads.get());
+        log.info("{}: {} payments in {} ms, {} payments/s, p99 {} ms", getClass().getSimpleName(),
+                PAYMENTS, burst.elapsedMs(), String.format("%.1f", burst.paymentsPerSecond()), burst.p99Ms());
+        return burst;
+    }
+
+    // Each payment from its own client thread, all released together; returns their latencies
+    private long[] send(int payments, String terminalPrefix) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>(payments);
+        long[] latenciesNanos = new long[payments];
+        try (ExecutorService terminals = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < payments; i++) {
+                String terminalId = terminalPrefix + i;
+                results.add(terminals.submit(() -> {
+                    start.await();
+                    long sent = System.nanoTime();
+                    assertThat(pay(terminalId)).isEqualTo(200);
+                    return System.nanoTime() - sent;
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < payments; i++) {
+                latenciesNanos[i] = results.get(i).get(60, TimeUnit.SECONDS);
+            }
+        }
+        return latenciesNanos;
+    }
+
+    private int pay(String terminalId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/payments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"orderId": "order-%s", "terminalId": "%s", "amount": 25.00, "tipAmount": 5.00,
+                         "method": "CREDIT_CARD", "idempotencyKey": "%s"}""".formatted(terminalId, terminalId, UUID.randomUUID())))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    record Burst(long elapsedMs, double paymentsPerSecond, long p99Ms, int gatewayCallsOnVirtualThreads) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.pao.payment.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With virtual threads a request blocked on the gateway holds no worker and,
+ * the gateway being called outside any transaction, no connection either, so
+ * the burst overlaps its gateway calls instead of queueing for a thread.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadLoadTest extends ThreadModeLoadTest {
+
+    @Test
+    void paymentsOverlapTheirGatewayCalls() throws Exception {
+        Burst burst = burst();
+
+        assertThat(burst.gatewayCallsOnVirtualThreads()).isEqualTo(PAYMENTS);
+        assertThat(burst.elapsedMs())
+                .as("the platform-thread mode needs at least %d ms", workerBoundMs())
+                .isLessThan(workerBoundMs());
+    }
+}
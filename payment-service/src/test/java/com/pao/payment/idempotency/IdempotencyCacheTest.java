@@ -0,0 +1,148 @@
+package com.pao.payment.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    @Test
+    void retryStormComputesOncePerKey() throws Exception {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(1_000, Duration.ofMinutes(5), v -> true);
+        Map<String, AtomicInteger> computations = new ConcurrentHashMap<>();
+        int threads = 32;
+        int callsPerThread = 10_000 / threads;
+        int keys = 20;
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < callsPerThread; i++) {
+                        String key = "key-" + (i + offset) % keys;
+                        String value = cache.getOrCompute(key, () -> {
+                            computations.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                            return key + "-result";
+                        });
+                        assertThat(value).isEqualTo(key + "-result");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(computations).hasSize(keys);
+        assertThat(computations.values()).allSatisfy(count -> assertThat(count).hasValue(1));
+    }
+
+    @Test
+    void concurrentCallersWaitForTheComputationInFlight() throws Exception {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMinutes(5), v -> true);
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = pool.submit(() -> cache.getOrCompute("key", () -> {
+                computations.incrementAndGet();
+                computing.countDown();
+                await(release);
+                return "first";
+            }));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> second = pool.submit(() -> cache.getOrCompute("key", () -> {
+                computations.incrementAndGet();
+                return "second";
+            }));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void sizeStaysWithinTheBoundAndEvictsOldestFirst() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(1_000, Duration.ofMinutes(5), v -> true);
+        for (int i = 0; i < 5_000; i++) {
+            cache.getOrCompute("key-" + i, () -> "value");
+            assertThat(cache.size()).isLessThanOrEqualTo(1_000);
+        }
+
+        AtomicInteger computations = new AtomicInteger();
+        cache.getOrCompute("key-4999", () -> "recomputed-" + computations.incrementAndGet());
+        cache.getOrCompute("key-0", () -> "recomputed-" + computations.incrementAndGet());
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws InterruptedException {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMillis(50), v -> true);
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.getOrCompute("key", () -> "value-" + computations.incrementAndGet());
+        assertThat(cache.getOrCompute("key", () -> "value-" + computations.incrementAndGet())).isEqualTo("value-1");
+
+        Thread.sleep(100);
+        assertThat(cache.getOrCompute("key", () -> "value-" + computations.incrementAndGet())).isEqualTo("value-2");
+    }
+
+    @Test
+    void resultsThatAreNotRetainedAreComputedAgain() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMinutes(5), v -> !v.equals("PENDING"));
+        AtomicInteger computations = new AtomicInteger();
+
+        assertThat(cache.getOrCompute("key", () -> computations.incrementAndGet() == 1 ? "PENDING" : "CAPTURED"))
+                .isEqualTo("PENDING");
+        assertThat(cache.getOrCompute("key", () -> computations.incrementAndGet() == 1 ? "PENDING" : "CAPTURED"))
+                .isEqualTo("CAPTURED");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void failuresReachTheCallerAndAreNotCached() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMinutes(5), v -> true);
+
+        assertThatThrownBy(() -> cache.getOrCompute("key", () -> {
+            throw new IllegalStateException("gateway down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("gateway down");
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getOrCompute("key", () -> "value")).isEqualTo("value");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.pao.payment.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.pao.payment.domain.Payment;
+import com.pao.payment.domain.PaymentMethod;
+import com.pao.payment.domain.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfflineJournalTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sealedRecordsAreReadBackInOrder() throws IOException {
+        OfflineJournal journal = open(FsyncPolicy.ALWAYS, objectMapper);
+        journal.append(record("p-1"));
+        journal.append(record("p-2"));
+
+        assertThat(journal.sealedSegments()).isEmpty();
+        assertThat(journal.sealActive()).isTrue();
+        assertThat(journal.sealActive()).isFalse();
+
+        List<Path> sealed = journal.sealedSegments();
+        assertThat(sealed).hasSize(1);
+        assertThat(journal.read(sealed.get(0)))
+                .extracting(r -> r.payment().getId())
+                .containsExactly("p-1", "p-2");
+        journal.close();
+    }
+
+    @Test
+    void segmentsRollWhenFull() throws IOException {
+        OfflineJournal journal = open(FsyncPolicy.NEVER, objectMapper);
+        int appended = 0;
+        while (journal.sealedSegments().isEmpty()) {
+            journal.append(record("p-" + appended++));
+        }
+        journal.sealActive();
+
+        int read = 0;
+        for (Path segment : journal.sealedSegments()) {
+            read += journal.read(segment).size();
+        }
+        assertThat(read).isEqualTo(appended);
+        journal.close();
+    }
+
+    @Test
+    void tornRecordEndsTheSegmentAndAppendsResumeBeforeIt() throws IOException {
+        OfflineJournal journal = open(FsyncPolicy.ALWAYS, objectMapper);
+        journal.append(record("p-1"));
+        journal.append(record("p-2"));
+        journal.close();
+
+        // Corrupt the last byte of the second record's payload
+        Path segment = onlySegment();
+        int firstLength;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            firstLength = file.readInt();
+            file.seek(8 + firstLength);
+            int secondLength = file.readInt();
+            long last = 8 + firstLength + 8 + secondLength - 1;
+            file.seek(last);
+            int b = file.read();
+            file.seek(last);
+            file.write(b ^ 0xFF);
+        }
+
+        OfflineJournal reopened = open(FsyncPolicy.ALWAYS, objectMapper);
+        reopened.append(record("p-3"));
+        reopened.sealActive();
+        assertThat(reopened.read(segment))
+                .extracting(r -> r.payment().getId())
+                .containsExactly("p-1", "p-3");
+        reopened.close();
+    }
+
+    @Test
+    void unreadableRecordsAreQuarantined() throws IOException {
+        OfflineJournal writer = open(FsyncPolicy.ALWAYS, objectMapper);
+        writer.append(record("p-1"));
+        writer.sealActive();
+        writer.close();
+
+        // No java.time support, so the record written above cannot be read back
+        OfflineJournal reader = open(FsyncPolicy.ALWAYS, new ObjectMapper());
+        Path segment = reader.sealedSegments().get(0);
+        assertThat(reader.read(segment)).isEmpty();
+
+        Path quarantined = directory.resolve("quarantine").resolve(segment.getFileName());
+        assertThat(Files.readAllLines(quarantined)).singleElement().asString().contains("\"p-1\"");
+        reader.close();
+    }
+
+    @Test
+    void intervalPolicyForcesInTheBackground() throws IOException {
+        OfflineJournal journal = open(FsyncPolicy.INTERVAL, objectMapper);
+        journal.append(record("p-1"));
+        journal.forceIfDirty();
+        journal.close();
+
+        OfflineJournal reopened = open(FsyncPolicy.INTERVAL, objectMapper);
+        reopened.sealActive();
+        assertThat(reopened.read(reopened.sealedSegments().get(0))).hasSize(1);
+        reopened.close();
+    }
+
+    private OfflineJournal open(FsyncPolicy policy, ObjectMapper mapper) throws IOException {
+        OfflineJournal journal = new OfflineJournal(directory.toString(), SEGMENT_BYTES, policy, 10, mapper);
+        journal.open();
+        return journal;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).findFirst().orElseThrow();
+        }
+    }
+
+    private static JournalRecord record(String paymentId) {
+        Payment payment = Payment.builder()
+                .id(paymentId)
+                .orderId("order-1")
+                .terminalId("terminal-1")
+                .amount(new BigDecimal("12.50"))
+                .tipAmount(BigDecimal.ZERO)
+                .totalAmount(new BigDecimal("12.50"))
+                .method(PaymentMethod.values()[0])
+                .status(PaymentStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .retryCount(0)
+                .idempotencyKey("key-" + paymentId)
+                .build();
+        return new JournalRecord(payment, true, null);
+    }
+}
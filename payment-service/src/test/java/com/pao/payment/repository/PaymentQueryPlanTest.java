@@ -0,0 +1,55 @@
+package com.pao.payment.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The payment sync scan on a migrated schema holding a million payments, all
+ * but the newest thousand already synced: it must read only the partial
+ * index, already in created_at order.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentQueryPlanTest {
+
+    private static final int PAYMENTS = 1_000_000;
+    private static final int UNSYNCED = 1_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findUnsyncedPaymentsReadsThePartialIndexInOrder() {
+        jdbcTemplate.update("""
+                INSERT INTO payments (id, order_id, terminal_id, status, method, amount, total_amount,
+                                      created_at, synced, idempotency_key, version)
+                SELECT 'payment-' || n, 'order-' || n, 'terminal-' || n % 10, 'CAPTURED', 'CREDIT_CARD',
+                       42.50, 42.50, timestamp '2024-01-01' + n * interval '1 second', n <= ?,
+                       'key-' || n, 0
+                FROM generate_series(1, ?) n
+                """, PAYMENTS - UNSYNCED, PAYMENTS);
+        jdbcTemplate.execute("ANALYZE payments");
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM payments p WHERE p.synced = false ORDER BY p.created_at", String.class));
+
+        assertThat(plan).contains("idx_payments_unsynced").doesNotContain("Seq Scan", "Sort");
+    }
+}
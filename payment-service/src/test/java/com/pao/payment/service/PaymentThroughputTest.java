@@ -0,0 +1,106 @@
+package com.pao.payment.service;
+
+import com.pao.payment.PostgresIntegrationTest;
+import com.pao.payment.domain.Payment;
+import com.pao.payment.domain.PaymentMethod;
+import com.pao.payment.domain.PaymentStatus;
+import com.pao.payment.gateway.PaymentGateway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * With the gateway called outside any transaction, concurrent card payments
+ * are bounded by the gateway, not the connection pool. Holding a connection
+ * across the call would cap throughput at pool size / gateway latency.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + PaymentThroughputTest.POOL_SIZE,
+        "payment.gateway.mock-latency-ms=" + PaymentThroughputTest.GATEWAY_LATENCY_MS
+})
+class PaymentThroughputTest extends PostgresIntegrationTest {
+
+    static final int POOL_SIZE = 4;
+    static final long GATEWAY_LATENCY_MS = 400;
+    private static final int PAYMENTS = 32;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @SpyBean
+    PaymentGateway paymentGateway;
+
+    @Test
+    void cardPaymentsScalePastTheConnectionPool() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                return invocation.callRealMethod();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }).when(paymentGateway).authorize(any());
+
+        // Warm the request path so the measured run is not dominated by first-use costs
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pay("warm-up-" + i);
+        }
+        maxInFlight.set(0);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService terminals = Executors.newFixedThreadPool(PAYMENTS);
+        List<Future<Payment>> results = new ArrayList<>();
+        long elapsedNanos;
+        try {
+            for (int i = 0; i < PAYMENTS; i++) {
+                int terminal = i;
+                results.add(terminals.submit(() -> {
+                    start.await();
+                    return pay("terminal-" + terminal);
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<Payment> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).getStatus())
+                        .isIn(PaymentStatus.CAPTURED, PaymentStatus.DECLINED);
+            }
+            elapsedNanos = System.nanoTime() - started;
+        } finally {
+            terminals.shutdownNow();
+        }
+
+        assertThat(maxInFlight.get()).as("concurrent gateway calls").isGreaterThan(POOL_SIZE);
+
+        // Holding a connection per gateway call would need PAYMENTS / POOL_SIZE sequential rounds
+        long poolBoundMs = PAYMENTS / POOL_SIZE * GATEWAY_LATENCY_MS;
+        double paymentsPerSecond = PAYMENTS * 1e9 / elapsedNanos;
+        assertThat(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .as("%d payments at %.1f/s; a pool-bound run takes at least %d ms", PAYMENTS, paymentsPerSecond, poolBoundMs)
+                .isLessThan(poolBoundMs);
+    }
+
+    private Payment pay(String terminalId) {
+        return paymentService.processPayment("order-" + terminalId, terminalId,
+                new BigDecimal("25.00"), new BigDecimal("5.00"), PaymentMethod.CREDIT_CARD,
+                UUID.randomUUID().toString());
+    }
+}
@@ -0,0 +1,39 @@
+package com.pao.persistence.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDv7 ids (RFC 9562): 48-bit Unix millis, a 12-bit counter
+ * that keeps ids from this JVM strictly increasing, then 62 random bits.
+ * Their canonical strings sort in creation order, so new rows append to the
+ * right edge of the primary-key B-tree instead of landing on random pages.
+ */
+public final class UuidV7 {
+
+    // (millis << 12) | counter of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long prev;
+        long state;
+        do {
+            prev = LAST.get();
+            // Same millisecond or clock stepped back: bump the counter, carrying into the timestamp
+            state = now > prev ? now : prev + 1;
+        } while (!LAST.compareAndSet(prev, state));
+
+        long msb = ((state >>> 12) << 16) | 0x7000L | (state & 0xFFFL);
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static String nextId() {
+        return next().toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.pao.persistence.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void setsVersionAndVariant() {
+        UUID id = UuidV7.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void carriesTheCreationTimeInTheFirst48Bits() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        // The counter may carry into the timestamp, but never by more than the ids handed out meanwhile
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertThat(millis).isBetween(before, after + 1);
+    }
+
+    @Test
+    void stringsSortInCreationOrderWithinAMillisecond() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7.nextId());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void staysUniqueAndIncreasingPerThreadUnderContention() throws Exception {
+        int threads = 16;
+        int perThread = 20_000;
+        ConcurrentLinkedQueue<String> all = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    List<String> mine = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        mine.add(UuidV7.nextId());
+                    }
+                    all.addAll(mine);
+                    return mine;
+                }));
+            }
+            for (Future<List<String>> result : results) {
+                assertThat(result.get()).isSorted();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Set<String> unique = new HashSet<>(all);
+        assertThat(unique).hasSize(threads * perThread);
+    }
+}